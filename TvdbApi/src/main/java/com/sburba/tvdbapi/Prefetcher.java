@@ -0,0 +1,210 @@
+package com.sburba.tvdbapi;
+
+import android.graphics.Bitmap;
+
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.ImageLoader;
+import com.sburba.tvdbapi.model.Season;
+import com.sburba.tvdbapi.model.Series;
+import com.sburba.tvdbapi.model.SeriesBundle;
+import com.sburba.tvdbapi.util.ThreadPreconditions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Speculatively loads what the user is likely to open next while they are still reading the
+ * current screen. For each {@link Series} shown it warms the series zip, and once that arrives it
+ * warms the images of the first screen of {@link Season}s, so tapping through to the seasons
+ * doesn't have to wait for a round trip.
+ * <p/>
+ * Everything is requested at {@link Request.Priority#LOW} and limited by a budget of concurrent
+ * requests and of bytes, counted as the estimated size of the parsed series plus the size of the
+ * decoded images. Only what the prefetcher actually loaded counts, series and images that were
+ * already cached or loading are free. Call {@link #cancel()} when the user navigates away, for example in
+ * {@code onStop()}. A canceled prefetcher can't be reused.
+ * <p/>
+ * Must be used from the main thread
+ */
+public class Prefetcher {
+
+    public static final int DEFAULT_MAX_CONCURRENT = 2;
+    public static final long DEFAULT_MAX_BYTES = 2 * 1024 * 1024;
+    public static final int DEFAULT_FIRST_SCREEN_SIZE = 8;
+
+    private final TvdbApi mTvdbApi;
+    private final ImageLoader mImageLoader;
+    private final int mMaxConcurrent;
+    private final long mMaxBytes;
+    private final int mFirstScreenSize;
+
+    private final Queue<Runnable> mPending = new LinkedList<Runnable>();
+    private final List<ImageLoader.ImageContainer> mImageRequests =
+            new ArrayList<ImageLoader.ImageContainer>();
+    private int mInFlight = 0;
+    private long mBytes = 0;
+    private boolean mCanceled = false;
+
+    public Prefetcher(TvdbApi tvdbApi, ImageLoader imageLoader) {
+        this(tvdbApi, imageLoader, DEFAULT_MAX_CONCURRENT, DEFAULT_MAX_BYTES,
+             DEFAULT_FIRST_SCREEN_SIZE);
+    }
+
+    /**
+     * @param tvdbApi         {@link TvdbApi} to prefetch with, its priority and tag are ignored
+     * @param imageLoader     {@link ImageLoader} the images will later be shown with
+     * @param maxConcurrent   Maximum number of prefetch requests in flight at once
+     * @param maxBytes        Stop prefetching once roughly this many bytes have been loaded
+     * @param firstScreenSize Number of series, and of seasons per series, to prefetch
+     */
+    public Prefetcher(TvdbApi tvdbApi, ImageLoader imageLoader, int maxConcurrent, long maxBytes,
+                      int firstScreenSize) {
+        mTvdbApi = tvdbApi.withPriority(Request.Priority.LOW).withTag(this);
+        mImageLoader = imageLoader;
+        mMaxConcurrent = maxConcurrent;
+        mMaxBytes = maxBytes;
+        mFirstScreenSize = firstScreenSize;
+    }
+
+    /**
+     * Prefetch the first screen of a list of series, in the order they are shown
+     */
+    public void prefetchSeries(Collection<Series> seriesList) {
+        ThreadPreconditions.checkOnMainThread();
+        int count = 0;
+        for (Series series : seriesList) {
+            if (count++ == mFirstScreenSize) break;
+            mPending.add(new SeriesTask(series.id));
+        }
+        fetchMore();
+    }
+
+    /**
+     * Prefetch a single series, for example one that was just opened
+     */
+    public void prefetchSeries(Series series) {
+        ThreadPreconditions.checkOnMainThread();
+        mPending.add(new SeriesTask(series.id));
+        fetchMore();
+    }
+
+    /**
+     * Stop prefetching. Series downloads and images that are still loading are canceled and
+     * nothing more is started
+     */
+    public void cancel() {
+        ThreadPreconditions.checkOnMainThread();
+        mCanceled = true;
+        mPending.clear();
+        mTvdbApi.cancelAll(this);
+        for (ImageLoader.ImageContainer imageRequest : mImageRequests) {
+            imageRequest.cancelRequest();
+        }
+        mImageRequests.clear();
+    }
+
+    public boolean isCanceled() {
+        return mCanceled;
+    }
+
+    /**
+     * @return The approximate number of bytes prefetched so far
+     */
+    public long getBytesLoaded() {
+        return mBytes;
+    }
+
+    private void fetchMore() {
+        while (!mCanceled && mInFlight < mMaxConcurrent && mBytes < mMaxBytes &&
+               !mPending.isEmpty()) {
+            mInFlight++;
+            mPending.remove().run();
+        }
+    }
+
+    private void onFinished(long bytes) {
+        mInFlight--;
+        mBytes += bytes;
+        fetchMore();
+    }
+
+    private class SeriesTask implements Runnable {
+        private final int mSeriesId;
+
+        SeriesTask(int seriesId) {
+            mSeriesId = seriesId;
+        }
+
+        @Override
+        public void run() {
+            final boolean alreadyLoaded = mTvdbApi.isSeriesCachedOrLoading(mSeriesId);
+            final long startTime = System.currentTimeMillis() / 1000;
+            mTvdbApi.getFullSeries(mSeriesId, new Response.Listener<SeriesBundle>() {
+                @Override
+                public void onResponse(SeriesBundle seriesBundle) {
+                    if (!mCanceled) queueSeasonImages(seriesBundle.seasons);
+                    // A bundle fetched before the task started came from a snapshot
+                    boolean downloaded = !alreadyLoaded && seriesBundle.fetchTime >= startTime;
+                    onFinished(downloaded ? seriesBundle.getEstimatedSize() : 0);
+                }
+            }, new Response.ErrorListener() {
+                @Override
+                public void onErrorResponse(VolleyError error) {
+                    onFinished(0);
+                }
+            });
+        }
+
+        private void queueSeasonImages(Collection<Season> seasons) {
+            int count = 0;
+            for (Season season : seasons) {
+                if (count++ == mFirstScreenSize) break;
+                String imageUrl = season.getImageUrl();
+                if (imageUrl != null) mPending.add(new ImageTask(imageUrl));
+            }
+        }
+    }
+
+    private class ImageTask implements Runnable, ImageLoader.ImageListener {
+        private final String mUrl;
+        private ImageLoader.ImageContainer mImageRequest;
+        private boolean mFinished = false;
+
+        ImageTask(String url) {
+            mUrl = url;
+        }
+
+        @Override
+        public void run() {
+            mImageRequest = mImageLoader.get(mUrl, this);
+            // A cached image is delivered before get() returns
+            if (!mFinished) mImageRequests.add(mImageRequest);
+        }
+
+        @Override
+        public void onResponse(ImageLoader.ImageContainer response, boolean isImmediate) {
+            Bitmap bitmap = response.getBitmap();
+            // A cache miss is first reported immediately without a bitmap
+            if (bitmap == null) return;
+            // Cached images didn't cost anything
+            finish(isImmediate ? 0 : bitmap.getRowBytes() * bitmap.getHeight());
+        }
+
+        @Override
+        public void onErrorResponse(VolleyError error) {
+            finish(0);
+        }
+
+        private void finish(long bytes) {
+            if (mFinished) return;
+            mFinished = true;
+            if (mImageRequest != null) mImageRequests.remove(mImageRequest);
+            onFinished(bytes);
+        }
+    }
+}
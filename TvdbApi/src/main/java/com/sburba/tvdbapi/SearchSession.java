@@ -0,0 +1,177 @@
+package com.sburba.tvdbapi;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v4.util.LruCache;
+
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.sburba.tvdbapi.model.Series;
+import com.sburba.tvdbapi.util.ThreadPreconditions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Searches for series as the user types. Keystrokes are debounced so only the query the user
+ * pauses on is searched, a search that is superseded by a newer query is canceled, and results
+ * are kept in an LRU cache keyed by the normalized query. When the user extends a query whose
+ * results are cached, the cached results filtered by name are shown right away, but only until
+ * the longer query's own search returns. The server caps its results and also matches aliases and
+ * translations, so filtering can miss series the server would find.
+ * <p/>
+ * Must be used from the main thread, results are delivered on the main thread
+ */
+public class SearchSession {
+
+    public static final long DEFAULT_DEBOUNCE_MS = 300;
+    public static final int DEFAULT_CACHE_SIZE = 32;
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private final TvdbApi mTvdbApi;
+    private final Listener mListener;
+    private final long mDebounceMs;
+    private final LruCache<String, Collection<Series>> mResults;
+    private String mQuery = null;
+    private boolean mSearchInFlight = false;
+
+    public SearchSession(TvdbApi tvdbApi, Listener listener) {
+        this(tvdbApi, listener, DEFAULT_DEBOUNCE_MS, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param tvdbApi    {@link TvdbApi} to search with, its tag is ignored
+     * @param listener   {@link Listener} for receiving the results
+     * @param debounceMs How long the query has to stay unchanged before it is searched
+     * @param cacheSize  Number of queries to keep the results of
+     */
+    public SearchSession(TvdbApi tvdbApi, Listener listener, long debounceMs, int cacheSize) {
+        mTvdbApi = tvdbApi.withPriority(Request.Priority.HIGH).withTag(this);
+        mListener = listener;
+        mDebounceMs = debounceMs;
+        mResults = new LruCache<String, Collection<Series>>(cacheSize);
+    }
+
+    /**
+     * Update the query, typically on every change of the search box. Cached results are delivered
+     * right away, anything else once the query has stayed the same for the debounce delay. Results
+     * filtered from a cached prefix are delivered right away and replaced once the search returns.
+     * An empty query delivers no results without searching
+     */
+    public void setQuery(String query) {
+        ThreadPreconditions.checkOnMainThread();
+        String normalized = normalize(query);
+        if (normalized.equals(mQuery)) return;
+        mQuery = normalized;
+        cancelSearch();
+
+        Collection<Series> results = getCachedResults(normalized);
+        if (results != null) {
+            mListener.onResults(normalized, results);
+            return;
+        }
+
+        Collection<Series> provisionalResults = getPrefixResults(normalized);
+        if (provisionalResults != null) mListener.onResults(normalized, provisionalResults);
+        sMainHandler.postDelayed(mSearch, mDebounceMs);
+    }
+
+    /**
+     * Stop any pending or in-flight search, for example when the search box is closed
+     */
+    public void cancel() {
+        ThreadPreconditions.checkOnMainThread();
+        mQuery = null;
+        cancelSearch();
+    }
+
+    private void cancelSearch() {
+        sMainHandler.removeCallbacks(mSearch);
+        if (mSearchInFlight) {
+            mTvdbApi.cancelAll(this);
+            mSearchInFlight = false;
+        }
+    }
+
+    /**
+     * @return The results for the exact query, or null if they aren't cached
+     */
+    private Collection<Series> getCachedResults(String query) {
+        if (query.length() == 0) return new ArrayList<Series>();
+        return mResults.get(query);
+    }
+
+    /**
+     * @return The results of the longest cached prefix of the query filtered down to the query, or
+     * null if no prefix is cached. They aren't cached, since they may be missing matches
+     */
+    private Collection<Series> getPrefixResults(String query) {
+        for (int length = query.length() - 1; length > 0; length--) {
+            Collection<Series> broaderResults = mResults.get(query.substring(0, length));
+            if (broaderResults != null) return filter(broaderResults, query);
+        }
+        return null;
+    }
+
+    private static List<Series> filter(Collection<Series> seriesList, String query) {
+        List<Series> matches = new ArrayList<Series>();
+        for (Series series : seriesList) {
+            if (series.name != null && normalize(series.name).contains(query)) {
+                matches.add(series);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Queries that only differ in case or whitespace get the same results
+     */
+    private static String normalize(String query) {
+        if (query == null) return "";
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.US);
+    }
+
+    private final Runnable mSearch = new Runnable() {
+        @Override
+        public void run() {
+            final String query = mQuery;
+            if (query == null) return;
+
+            mSearchInFlight = true;
+            mTvdbApi.searchSeries(query, new Response.Listener<Collection<Series>>() {
+                @Override
+                public void onResponse(Collection<Series> results) {
+                    mResults.put(query, results);
+                    // Results found in a snapshot can't be canceled, so check they're still wanted
+                    if (!query.equals(mQuery)) return;
+                    mSearchInFlight = false;
+                    mListener.onResults(query, results);
+                }
+            }, new Response.ErrorListener() {
+                @Override
+                public void onErrorResponse(VolleyError error) {
+                    if (!query.equals(mQuery)) return;
+                    mSearchInFlight = false;
+                    mListener.onErrorResponse(query, error);
+                }
+            });
+        }
+    };
+
+    public interface Listener {
+        /**
+         * May be called twice for the same query, first with results filtered from a shorter
+         * query and then with the results of the search, which replace them
+         *
+         * @param query   The normalized query the results are for
+         * @param results The matching series
+         */
+        public void onResults(String query, Collection<Series> results);
+
+        public void onErrorResponse(String query, VolleyError error);
+    }
+}
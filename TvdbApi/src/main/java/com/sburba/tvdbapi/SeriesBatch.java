@@ -0,0 +1,152 @@
+package com.sburba.tvdbapi;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.sburba.tvdbapi.util.ThreadPreconditions;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Fetches the same kind of data for many series while keeping at most a fixed number of series
+ * requests in flight, so a large batch doesn't flood the {@link RequestQueue} and starve
+ * interactive requests. The next series is only requested when one finishes.
+ * <p/>
+ * Must be started and canceled from the main thread, all callbacks are on the main thread
+ */
+public class SeriesBatch<T> {
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private final Fetcher<T> mFetcher;
+    private final Listener<T> mListener;
+    private final int mMaxConcurrent;
+    private final Queue<Integer> mPendingIds;
+    private final Map<Integer, T> mResponses = new HashMap<Integer, T>();
+    private final Map<Integer, VolleyError> mErrors = new HashMap<Integer, VolleyError>();
+    private int mInFlight = 0;
+    private boolean mCanceled = false;
+
+    /**
+     * @param seriesIds     Series to fetch, duplicates are only fetched once
+     * @param maxConcurrent Maximum number of series requests in flight at once
+     */
+    SeriesBatch(Collection<Integer> seriesIds, int maxConcurrent, Fetcher<T> fetcher,
+                Listener<T> listener) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be at least 1");
+        }
+        mPendingIds = new LinkedList<Integer>(new LinkedHashSet<Integer>(seriesIds));
+        mMaxConcurrent = maxConcurrent;
+        mFetcher = fetcher;
+        mListener = listener;
+    }
+
+    void start() {
+        ThreadPreconditions.checkOnMainThread();
+        if (mPendingIds.isEmpty()) {
+            // Still report completion asynchronously, the same as a non-empty batch
+            sMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (!mCanceled) mListener.onComplete(mResponses, mErrors);
+                }
+            });
+            return;
+        }
+        fetchMore();
+    }
+
+    /**
+     * Stop requesting series. Requests already in flight finish but aren't reported and
+     * {@link Listener#onComplete} is never called
+     */
+    public void cancel() {
+        ThreadPreconditions.checkOnMainThread();
+        mCanceled = true;
+        mPendingIds.clear();
+    }
+
+    public boolean isCanceled() {
+        return mCanceled;
+    }
+
+    /**
+     * @return The number of series that have not finished yet
+     */
+    public int getRemainingCount() {
+        return mPendingIds.size() + mInFlight;
+    }
+
+    private void fetchMore() {
+        while (mInFlight < mMaxConcurrent && !mPendingIds.isEmpty()) {
+            final int seriesId = mPendingIds.remove();
+            mInFlight++;
+            mFetcher.fetch(seriesId, new Response.Listener<T>() {
+                @Override
+                public void onResponse(T response) {
+                    mInFlight--;
+                    if (mCanceled) return;
+                    mResponses.put(seriesId, response);
+                    mListener.onResponse(seriesId, response);
+                    onFinished();
+                }
+            }, new Response.ErrorListener() {
+                @Override
+                public void onErrorResponse(VolleyError error) {
+                    mInFlight--;
+                    if (mCanceled) return;
+                    mErrors.put(seriesId, error);
+                    mListener.onErrorResponse(seriesId, error);
+                    onFinished();
+                }
+            });
+        }
+    }
+
+    private void onFinished() {
+        // The listener may have canceled the batch from the callback that got us here
+        if (mCanceled) return;
+        if (mInFlight == 0 && mPendingIds.isEmpty()) {
+            mListener.onComplete(mResponses, mErrors);
+        } else {
+            fetchMore();
+        }
+    }
+
+    public interface Listener<T> {
+        /**
+         * Called as each series arrives
+         */
+        public void onResponse(int seriesId, T response);
+
+        /**
+         * Called for each series that failed, the rest of the batch carries on
+         */
+        public void onErrorResponse(int seriesId, VolleyError error);
+
+        /**
+         * Called once after every series has either arrived or failed
+         *
+         * @param responses The results keyed by series id
+         * @param errors    The errors keyed by series id
+         */
+        public void onComplete(Map<Integer, T> responses, Map<Integer, VolleyError> errors);
+    }
+
+    /**
+     * Issues the request for a single series
+     */
+    interface Fetcher<T> {
+        public void fetch(int seriesId, Response.Listener<T> listener,
+                          Response.ErrorListener errorListener);
+    }
+}
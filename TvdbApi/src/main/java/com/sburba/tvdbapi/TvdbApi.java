@@ -1,39 +1,87 @@
 package com.sburba.tvdbapi;
 
-import android.util.Log;
+import android.os.Handler;
+import android.os.Looper;
 
+import com.android.volley.Request;
 import com.android.volley.RequestQueue;
 import com.android.volley.Response;
+import com.sburba.tvdbapi.cache.SeriesBundleCache;
+import com.sburba.tvdbapi.cache.SeriesIndex;
+import com.sburba.tvdbapi.cache.SnapshotStore;
 import com.sburba.tvdbapi.model.Actor;
 import com.sburba.tvdbapi.model.Banner;
 import com.sburba.tvdbapi.model.Episode;
 import com.sburba.tvdbapi.model.Season;
 import com.sburba.tvdbapi.model.Series;
+import com.sburba.tvdbapi.model.SeriesBundle;
+import com.sburba.tvdbapi.model.SeriesUpdate;
 import com.sburba.tvdbapi.parser.ActorListParser;
 import com.sburba.tvdbapi.parser.BannerListParser;
 import com.sburba.tvdbapi.parser.EpisodeParser;
-import com.sburba.tvdbapi.parser.SeasonListParser;
+import com.sburba.tvdbapi.parser.MirrorListParser;
+import com.sburba.tvdbapi.parser.SeriesBundleParser;
 import com.sburba.tvdbapi.parser.SeriesParser;
+import com.sburba.tvdbapi.parser.UpdatesParser;
+import com.sburba.tvdbapi.transport.Mirror;
+import com.sburba.tvdbapi.transport.MirrorSelector;
+import com.sburba.tvdbapi.xml.ChunkListener;
+import com.sburba.tvdbapi.xml.RevalidationSource;
+import com.sburba.tvdbapi.xml.SharedZippedXmlRequest;
+import com.sburba.tvdbapi.xml.StreamingXmlObjectListParser;
+import com.sburba.tvdbapi.xml.TimingObserver;
+import com.sburba.tvdbapi.xml.XmlObjectListParser;
 import com.sburba.tvdbapi.xml.XmlObjectListRequest;
 import com.sburba.tvdbapi.xml.XmlObjectRequest;
+import com.sburba.tvdbapi.xml.XmlRequest;
 import com.sburba.tvdbapi.xml.ZippedXmlObjectListRequest;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 @SuppressWarnings("unused")
 public class TvdbApi {
 
     private static final String TAG = "TvdbApi";
-    private static final String CHAR_ENCODING = "UTF-8";
-    private static final String BASE_URL = "http://thetvdb.com/api/";
-    private static final String SERIES_SEARCH = BASE_URL + "GetSeries.php?seriesname=";
-    private static final String IMDB_SERIES_SEARCH = BASE_URL + "GetSeriesByRemoteID.php?imdbid=";
+    private static final String DEFAULT_LANGUAGE = "en";
+    private static final int DEFAULT_SERIES_CACHE_SIZE = 4 * 1024 * 1024;
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static volatile SeriesBundleCache sSeriesCache =
+            new SeriesBundleCache(DEFAULT_SERIES_CACHE_SIZE);
+    private static volatile SnapshotStore sSnapshotStore = null;
+    private static volatile SeriesIndex sSeriesIndex = null;
+    private static volatile TimingObserver sTimingObserver = null;
+    /**
+     * Snapshots are read and written on a single thread so writes to the same key never overlap
+     */
+    private static final Executor sSnapshotExecutor = Executors.newSingleThreadExecutor();
+    /**
+     * Search snapshots are small and searches are interactive, so they get their own thread
+     * instead of waiting behind series bundles being read or written
+     */
+    private static final Executor sSearchSnapshotExecutor = Executors.newSingleThreadExecutor();
+
+    /**
+     * Series zip requests that are still accepting subscribers, keyed by URL (which contains the
+     * series id and language). Static since TvdbApi instances aren't shared between screens
+     */
+    private static final Map<String, SharedZippedXmlRequest> sSeriesRequests =
+            new HashMap<String, SharedZippedXmlRequest>();
 
     private final String mApiKey;
     private final String mLanguage;
+    private final TvdbUrls mUrls;
     private final RequestQueue mRequestQueue;
+    private final Request.Priority mPriority;
+    private final Object mTag;
 
     /**
      * Create a new TvdbApi instance. This does not need to be a singleton object
@@ -44,8 +92,110 @@ public class TvdbApi {
      */
     public TvdbApi(String apiKey, String language, RequestQueue requestQueue) {
         mApiKey = apiKey;
-        mLanguage = language;
+        mLanguage = (language == null) ? DEFAULT_LANGUAGE : language;
+        mUrls = new TvdbUrls(mApiKey, mLanguage);
         mRequestQueue = requestQueue;
+        mPriority = Request.Priority.NORMAL;
+        mTag = null;
+    }
+
+    private TvdbApi(TvdbApi tvdbApi, Request.Priority priority, Object tag) {
+        mApiKey = tvdbApi.mApiKey;
+        mLanguage = tvdbApi.mLanguage;
+        mUrls = tvdbApi.mUrls;
+        mRequestQueue = tvdbApi.mRequestQueue;
+        mPriority = priority;
+        mTag = tag;
+    }
+
+    /**
+     * Get a TvdbApi that makes its requests with the given priority, so on-screen requests can be
+     * dispatched ahead of background work. For example use {@link Request.Priority#HIGH} for a
+     * search the user is waiting on and {@link Request.Priority#LOW} for
+     * {@link #refreshSeries} or batches. This instance is not changed
+     *
+     * @param priority The {@link Request.Priority} for every request made through the returned
+     *                 instance
+     */
+    public TvdbApi withPriority(Request.Priority priority) {
+        return new TvdbApi(this, priority, mTag);
+    }
+
+    /**
+     * Get a TvdbApi that tags its requests so they can all be canceled at once with
+     * {@link #cancelAll}, for example with the activity as the tag and cancelAll in
+     * {@code onDestroy()}. This instance is not changed
+     *
+     * @param tag The tag for every request made through the returned instance
+     */
+    public TvdbApi withTag(Object tag) {
+        return new TvdbApi(this, mPriority, tag);
+    }
+
+    /**
+     * Cancel every request made with the tag, see {@link #withTag}. Their listeners won't be
+     * called, and responses that are still being parsed stop parsing at the next read. A series
+     * download shared with untagged or differently tagged callers keeps going for them.
+     * Results that were already found in a cache may still be delivered. Must be called from
+     * the main thread for the listeners to be guaranteed not to be called
+     *
+     * @param tag The tag to cancel, as compared with ==
+     */
+    public void cancelAll(final Object tag) {
+        if (tag == null) throw new IllegalArgumentException("Cannot cancelAll with a null tag");
+        mRequestQueue.cancelAll(new RequestQueue.RequestFilter() {
+            @Override
+            public boolean apply(Request<?> request) {
+                if (request instanceof SharedZippedXmlRequest) {
+                    return ((SharedZippedXmlRequest) request).cancelSubscriptions(tag);
+                }
+                return request.getTag() == tag;
+            }
+        });
+    }
+
+    /**
+     * Set the memory budget for parsed series data shared by all TvdbApi instances. Repeat
+     * requests for seasons, episodes, banners or actors of a cached series are answered without
+     * downloading or parsing anything. Changing the size drops everything already cached
+     *
+     * @param maxSize The approximate number of bytes cached series data may retain
+     */
+    public static void setSeriesCacheSize(int maxSize) {
+        sSeriesCache = new SeriesBundleCache(maxSize);
+    }
+
+    /**
+     * Persist parsed search results and series data so they can be loaded from disk instead of
+     * downloaded and parsed again, even after the app restarts. Disabled by default
+     *
+     * @param snapshotStore The {@link SnapshotStore} to use, or null to stop using snapshots
+     */
+    public static void setSnapshotStore(SnapshotStore snapshotStore) {
+        sSnapshotStore = snapshotStore;
+    }
+
+    /**
+     * Add every {@link Series} that is searched for or downloaded to an index, so the series can
+     * later be searched offline with {@link SeriesIndex#search}. Disabled by default
+     *
+     * @param seriesIndex The {@link SeriesIndex} to keep up to date, or null to stop indexing
+     */
+    public static void setSeriesIndex(SeriesIndex seriesIndex) {
+        sSeriesIndex = seriesIndex;
+    }
+
+    /**
+     * Report how long each stage of every request took: waiting in the queue, the network,
+     * unzipping, parsing and delivery, along with the response size and the number of items
+     * parsed. A series zip shared by several parsers is reported once per parser. Results
+     * answered from the series cache or a snapshot make no request and aren't reported. Disabled
+     * by default
+     *
+     * @param timingObserver The {@link TimingObserver} to report to, or null to stop reporting
+     */
+    public static void setTimingObserver(TimingObserver timingObserver) {
+        sTimingObserver = timingObserver;
     }
 
     /**
@@ -55,23 +205,59 @@ public class TvdbApi {
      * @param listener      {@link Response.Listener} for receiving the result
      * @param errorListener {@link Response.ErrorListener} for receiving any errors
      */
-    public void searchSeries(String seriesName, Response.Listener<Collection<Series>> listener,
-                             Response.ErrorListener errorListener) {
-        String query;
-        try {
-            query = URLEncoder.encode(seriesName, CHAR_ENCODING);
-        } catch (UnsupportedEncodingException e) {
-            Log.wtf(TAG, "How the hell is " + CHAR_ENCODING + " not supported? Dropping request");
+    public void searchSeries(String seriesName,
+                             final Response.Listener<Collection<Series>> listener,
+                             final Response.ErrorListener errorListener) {
+        final String requestUrl = mUrls.getSeriesSearchUrl(seriesName);
+        final SnapshotStore snapshotStore = sSnapshotStore;
+        if (snapshotStore == null) {
+            requestSeriesSearch(requestUrl, listener, errorListener);
             return;
         }
 
-        String requestUrl = SERIES_SEARCH + query + "&language=" + mLanguage;
+        final String snapshotKey =
+                "search/" + TvdbUrls.encodeQuery(seriesName) + "/" + mLanguage;
+        sSearchSnapshotExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Collection<Series> seriesList = snapshotStore.getSeriesList(snapshotKey);
+                if (seriesList != null) {
+                    indexSearchResults(seriesList);
+                    deliverCached(listener, seriesList);
+                    return;
+                }
+
+                requestSeriesSearch(requestUrl, new Response.Listener<Collection<Series>>() {
+                    @Override
+                    public void onResponse(final Collection<Series> seriesList) {
+                        sSearchSnapshotExecutor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                snapshotStore.putSeriesList(snapshotKey, seriesList);
+                            }
+                        });
+                        listener.onResponse(seriesList);
+                    }
+                }, errorListener);
+            }
+        });
+    }
+
+    private void requestSeriesSearch(String requestUrl,
+                                     final Response.Listener<Collection<Series>> listener,
+                                     Response.ErrorListener errorListener) {
         XmlObjectListRequest<Series, SeriesParser> seriesRequest =
-                new XmlObjectListRequest<Series, SeriesParser>(new SeriesParser(),
-                                                               requestUrl, listener,
-                                                               errorListener);
+                new XmlObjectListRequest<Series, SeriesParser>(
+                        new SeriesParser(), requestUrl,
+                        new Response.Listener<Collection<Series>>() {
+                            @Override
+                            public void onResponse(Collection<Series> seriesList) {
+                                indexSearchResults(seriesList);
+                                listener.onResponse(seriesList);
+                            }
+                        }, errorListener);
 
-        mRequestQueue.add(seriesRequest);
+        addRequest(seriesRequest);
     }
 
     /**
@@ -81,15 +267,48 @@ public class TvdbApi {
      * @param listener      {@link Response.Listener} for receiving the result
      * @param errorListener {@link Response.ErrorListener} for receiving any errors
      */
-    public void getSeriesFromImdbId(String imdbId, Response.Listener<Series> listener,
+    public void getSeriesFromImdbId(String imdbId, final Response.Listener<Series> listener,
                                     Response.ErrorListener errorListener) {
-        String requestUrl = IMDB_SERIES_SEARCH + imdbId;
+        String requestUrl = mUrls.getImdbSeriesSearchUrl(imdbId);
 
         XmlObjectRequest<Series, SeriesParser> seriesRequest =
-                new XmlObjectRequest<Series, SeriesParser>(new SeriesParser(), requestUrl, listener,
-                                                           errorListener);
+                new XmlObjectRequest<Series, SeriesParser>(
+                        new SeriesParser(), requestUrl, new Response.Listener<Series>() {
+                            @Override
+                            public void onResponse(Series series) {
+                                indexSearchResults(Collections.singletonList(series));
+                                listener.onResponse(series);
+                            }
+                        }, errorListener);
 
-        mRequestQueue.add(seriesRequest);
+        addRequest(seriesRequest);
+    }
+
+    /**
+     * Get everything about a {@link Series} at once: the series record, episodes, seasons, banners
+     * and actors. This downloads and parses the series once, where asking for each separately
+     * would parse the same data several times
+     *
+     * @param series        {@link Series} to get everything for
+     * @param listener      {@link Response.Listener} for receiving the result
+     * @param errorListener {@link Response.ErrorListener} for receiving any errors
+     */
+    public void getFullSeries(Series series, Response.Listener<SeriesBundle> listener,
+                              Response.ErrorListener errorListener) {
+        getFullSeries(series.id, listener, errorListener);
+    }
+
+    /**
+     * Get everything about a TVDB Series ID at once: the series record, episodes, seasons,
+     * banners and actors
+     *
+     * @param seriesId      TVDB Series ID
+     * @param listener      {@link Response.Listener} for receiving the result
+     * @param errorListener {@link Response.ErrorListener} for receiving any errors
+     */
+    public void getFullSeries(int seriesId, Response.Listener<SeriesBundle> listener,
+                              Response.ErrorListener errorListener) {
+        getSeriesBundle(seriesId, listener, errorListener);
     }
 
     /**
@@ -111,15 +330,14 @@ public class TvdbApi {
      * @param listener      {@link Response.Listener} for receiving the result
      * @param errorListener {@link Response.ErrorListener} for receiving any errors
      */
-    public void getSeasons(int seriesId, Response.Listener<Collection<Season>> listener,
+    public void getSeasons(int seriesId, final Response.Listener<Collection<Season>> listener,
                            Response.ErrorListener errorListener) {
-        String requestUrl = getSeriesRequestUrl(seriesId);
-
-        ZippedXmlObjectListRequest<Season, SeasonListParser> seasonRequest =
-                new ZippedXmlObjectListRequest<Season, SeasonListParser>(
-                        new SeasonListParser(mLanguage), requestUrl, listener, errorListener);
-
-        mRequestQueue.add(seasonRequest);
+        getSeriesBundle(seriesId, new Response.Listener<SeriesBundle>() {
+            @Override
+            public void onResponse(SeriesBundle seriesBundle) {
+                listener.onResponse(seriesBundle.seasons);
+            }
+        }, errorListener);
     }
 
     /**
@@ -146,6 +364,31 @@ public class TvdbApi {
         getEpisodes(seriesId, EpisodeParser.ALL_SEASONS, listener, errorListener);
     }
 
+    /**
+     * Get all of the {@link Episode}s for many series, with at most maxConcurrent series
+     * downloading at a time. Each series is reported as it arrives, followed by one callback once
+     * the whole batch is done. Must be called from the main thread
+     *
+     * @param seriesIds     TVDB Series IDs
+     * @param maxConcurrent Maximum number of series downloads in flight at once
+     * @param listener      {@link SeriesBatch.Listener} for receiving the results and any errors
+     * @return The running batch, which can be canceled
+     */
+    public SeriesBatch<Collection<Episode>> getEpisodes(
+            Collection<Integer> seriesIds, int maxConcurrent,
+            SeriesBatch.Listener<Collection<Episode>> listener) {
+        SeriesBatch<Collection<Episode>> batch = new SeriesBatch<Collection<Episode>>(
+                seriesIds, maxConcurrent, new SeriesBatch.Fetcher<Collection<Episode>>() {
+            @Override
+            public void fetch(int seriesId, Response.Listener<Collection<Episode>> listener,
+                              Response.ErrorListener errorListener) {
+                getEpisodes(seriesId, listener, errorListener);
+            }
+        }, listener);
+        batch.start();
+        return batch;
+    }
+
     /**
      * Get the {@link Episode}s for a specific {@link Season}
      *
@@ -166,17 +409,49 @@ public class TvdbApi {
      * @param listener      {@link Response.Listener} for receiving the result
      * @param errorListener {@link Response.ErrorListener} for receiving any errors
      */
-    public void getEpisodes(int seriesId, int seasonNumber,
-                            Response.Listener<Collection<Episode>> listener,
+    public void getEpisodes(int seriesId, final int seasonNumber,
+                            final Response.Listener<Collection<Episode>> listener,
                             Response.ErrorListener errorListener) {
-        String requestUrl = getSeriesRequestUrl(seriesId);
+        getSeriesBundle(seriesId, new Response.Listener<SeriesBundle>() {
+            @Override
+            public void onResponse(SeriesBundle seriesBundle) {
+                listener.onResponse(seriesBundle.getEpisodes(seasonNumber));
+            }
+        }, errorListener);
+    }
 
-        ZippedXmlObjectListRequest<Episode, EpisodeParser> episodeRequest =
-                new ZippedXmlObjectListRequest<Episode, EpisodeParser>(
-                        new EpisodeParser(mLanguage, seasonNumber), requestUrl, listener,
-                        errorListener);
+    /**
+     * Get the {@link Episode}s for a specific {@link Season} in chunks as they are parsed, see
+     * {@link #getEpisodes(int, int, int, ChunkListener, Response.ErrorListener)}
+     */
+    public void getEpisodes(Season season, int chunkSize, ChunkListener<Episode> chunkListener,
+                            Response.ErrorListener errorListener) {
+        getEpisodes(season.seriesId, season.seasonNumber, chunkSize, chunkListener,
+                    errorListener);
+    }
 
-        mRequestQueue.add(episodeRequest);
+    /**
+     * Get {@link Episode}s in chunks as they are parsed, so a long list can be shown before the
+     * whole series has been read. If the series is already cached, has a snapshot or is being
+     * downloaded the episodes arrive as a single chunk
+     *
+     * @param seriesId      TVDB Series ID
+     * @param seasonNumber  The season number, or {@link EpisodeParser#ALL_SEASONS}
+     * @param chunkSize     Number of episodes in each chunk
+     * @param chunkListener {@link ChunkListener} for receiving the chunks and the whole list
+     * @param errorListener {@link Response.ErrorListener} for receiving any errors
+     */
+    public void getEpisodes(final int seriesId, final int seasonNumber, int chunkSize,
+                            final ChunkListener<Episode> chunkListener,
+                            final Response.ErrorListener errorListener) {
+        getSeriesChunks(seriesId, new EpisodeParser(mLanguage, seasonNumber), chunkSize,
+                        chunkListener, errorListener, new Runnable() {
+                    @Override
+                    public void run() {
+                        getEpisodes(seriesId, seasonNumber, asSingleChunk(chunkListener),
+                                    errorListener);
+                    }
+                });
     }
 
     /**
@@ -224,22 +499,13 @@ public class TvdbApi {
     public void getEpisode(int seriesId, int seasonNumber, int episodeNumber, SHOW_ORDER showOrder,
                            Response.Listener<Episode> listener,
                            Response.ErrorListener errorListener) {
-        String showOrderModifier;
-        if (showOrder == SHOW_ORDER.ABSOLUTE) {
-            showOrderModifier = "/absolute/";
-        } else if (showOrder == SHOW_ORDER.DVD) {
-            showOrderModifier = "/dvd/";
-        } else {
-            showOrderModifier = "/default/";
-        }
         String requestUrl =
-                BASE_URL + mApiKey + "/series/" + seriesId + showOrderModifier + seasonNumber +
-                "/" + episodeNumber + "/" + mLanguage + ".xml";
+                mUrls.getEpisodeUrl(seriesId, seasonNumber, episodeNumber, showOrder);
 
         XmlObjectRequest<Episode, EpisodeParser> episodeRequest = new XmlObjectRequest<Episode,
                 EpisodeParser>(new EpisodeParser(mLanguage), requestUrl, listener, errorListener);
 
-        mRequestQueue.add(episodeRequest);
+        addRequest(episodeRequest);
     }
 
     /**
@@ -254,22 +520,13 @@ public class TvdbApi {
     public void getEpisode(Season season, int episodeNumber, SHOW_ORDER showOrder,
                            Response.Listener<Episode> listener,
                            Response.ErrorListener errorListener) {
-        String showOrderModifier;
-        if (showOrder == SHOW_ORDER.ABSOLUTE) {
-            showOrderModifier = "/absolute/";
-        } else if (showOrder == SHOW_ORDER.DVD) {
-            showOrderModifier = "/dvd/";
-        } else {
-            showOrderModifier = "/default/";
-        }
-        String requestUrl =
-                BASE_URL + mApiKey + "/series/" + season.seriesId + showOrderModifier + season.seasonNumber +
-                "/" + episodeNumber + "/" + mLanguage + ".xml";
+        String requestUrl = mUrls.getEpisodeUrl(season.seriesId, season.seasonNumber,
+                                                episodeNumber, showOrder);
 
         XmlObjectRequest<Episode, EpisodeParser> episodeRequest = new XmlObjectRequest<Episode,
                 EpisodeParser>(new EpisodeParser(mLanguage), requestUrl, listener, errorListener);
 
-        mRequestQueue.add(episodeRequest);
+        addRequest(episodeRequest);
     }
 
     /**
@@ -306,16 +563,38 @@ public class TvdbApi {
      * @param listener      {@link Response.Listener} for receiving the result
      * @param errorListener {@link Response.ErrorListener} for receiving any errors
      */
-    public void getBanners(int seriesId, int seasonNumber,
-                           Response.Listener<Collection<Banner>> listener,
+    public void getBanners(int seriesId, final int seasonNumber,
+                           final Response.Listener<Collection<Banner>> listener,
                            Response.ErrorListener errorListener) {
-        String requstUrl = getSeriesRequestUrl(seriesId);
-
-        ZippedXmlObjectListRequest<Banner, BannerListParser> bannerRequest =
-                new ZippedXmlObjectListRequest<Banner, BannerListParser>(
-                        new BannerListParser(seasonNumber), requstUrl, listener, errorListener);
+        getSeriesBundle(seriesId, new Response.Listener<SeriesBundle>() {
+            @Override
+            public void onResponse(SeriesBundle seriesBundle) {
+                listener.onResponse(seriesBundle.getBanners(seasonNumber));
+            }
+        }, errorListener);
+    }
 
-        mRequestQueue.add(bannerRequest);
+    /**
+     * Get {@link Banner}s in chunks as they are parsed. If the series is already cached, has a
+     * snapshot or is being downloaded the banners arrive as a single chunk
+     *
+     * @param seriesId      TVDB Series ID
+     * @param seasonNumber  The season number, or {@link BannerListParser#ALL_SEASONS}
+     * @param chunkSize     Number of banners in each chunk
+     * @param chunkListener {@link ChunkListener} for receiving the chunks and the whole list
+     * @param errorListener {@link Response.ErrorListener} for receiving any errors
+     */
+    public void getBanners(final int seriesId, final int seasonNumber, int chunkSize,
+                           final ChunkListener<Banner> chunkListener,
+                           final Response.ErrorListener errorListener) {
+        getSeriesChunks(seriesId, new BannerListParser(seasonNumber), chunkSize, chunkListener,
+                        errorListener, new Runnable() {
+                    @Override
+                    public void run() {
+                        getBanners(seriesId, seasonNumber, asSingleChunk(chunkListener),
+                                   errorListener);
+                    }
+                });
     }
 
     /**
@@ -339,18 +618,658 @@ public class TvdbApi {
      */
     public void getActors(int seriesId, Response.Listener<Collection<Actor>> listener,
                           Response.ErrorListener errorListener) {
-        String requestUrl = BASE_URL + mApiKey + "/series/" + seriesId + "/actors.xml";
+        SeriesBundle cachedBundle = sSeriesCache.get(getSeriesCacheKey(seriesId));
+        if (cachedBundle != null) {
+            deliverCached(listener, cachedBundle.actors);
+            return;
+        }
+
+        String requestUrl = mUrls.getActorsUrl(seriesId);
 
         XmlObjectListRequest<Actor, ActorListParser> actorRequest = new XmlObjectListRequest
                 <Actor, ActorListParser>(new ActorListParser(), requestUrl, listener,
                                          errorListener);
+        actorRequest.setRevalidationSource(new CachedSeriesSource(getSeriesCacheKey(seriesId)));
+
+        addRequest(actorRequest);
+    }
+
+    /**
+     * Get the mirrors the TVDB lists for spreading its traffic, to route with a
+     * {@link MirrorSelector}
+     *
+     * @param listener      {@link Response.Listener} for receiving the result
+     * @param errorListener {@link Response.ErrorListener} for receiving any errors
+     */
+    public void getMirrors(Response.Listener<Collection<Mirror>> listener,
+                           Response.ErrorListener errorListener) {
+        addRequest(new XmlObjectListRequest<Mirror, MirrorListParser>(
+                new MirrorListParser(), mUrls.getMirrorsUrl(), listener, errorListener));
+    }
+
+    /**
+     * Get the series that changed during the last day, week or month from a TVDB updates feed
+     *
+     * @param period        The period the feed covers
+     * @param listener      {@link Response.Listener} for receiving the result
+     * @param errorListener {@link Response.ErrorListener} for receiving any errors
+     */
+    public void getUpdates(UPDATE_PERIOD period,
+                           Response.Listener<Collection<SeriesUpdate>> listener,
+                           Response.ErrorListener errorListener) {
+        String requestUrl = mUrls.getUpdatesUrl(period);
+
+        ZippedXmlObjectListRequest<SeriesUpdate, UpdatesParser> updatesRequest =
+                new ZippedXmlObjectListRequest<SeriesUpdate, UpdatesParser>(
+                        new UpdatesParser(), requestUrl, listener, errorListener);
+
+        addRequest(updatesRequest);
+    }
+
+    /**
+     * Bring cached series data up to date with a single updates feed download. Only series that
+     * are cached, in memory or in the {@link SnapshotStore}, and changed since they were
+     * downloaded are downloaded again. Series that aren't cached are left alone.
+     * <p/>
+     * The feed can't vouch for series downloaded before the start of its period, so those are
+     * always downloaded again. Pick a period that covers the time since the last refresh
+     *
+     * @param seriesIds     TVDB Series IDs of the series to keep up to date
+     * @param period        The updates feed to check against
+     * @param listener      {@link Response.Listener} receiving the IDs of the series that are
+     *                      being downloaded again
+     * @param errorListener {@link Response.ErrorListener} for receiving any errors fetching the
+     *                      updates feed
+     */
+    public void refreshSeries(final Collection<Integer> seriesIds, UPDATE_PERIOD period,
+                              final Response.Listener<Collection<Integer>> listener,
+                              Response.ErrorListener errorListener) {
+        long periodSeconds;
+        if (period == UPDATE_PERIOD.MONTH) {
+            periodSeconds = 30 * SECONDS_PER_DAY;
+        } else if (period == UPDATE_PERIOD.WEEK) {
+            periodSeconds = 7 * SECONDS_PER_DAY;
+        } else {
+            periodSeconds = SECONDS_PER_DAY;
+        }
+        final long periodStart = System.currentTimeMillis() / 1000 - periodSeconds;
+
+        getUpdates(period, new Response.Listener<Collection<SeriesUpdate>>() {
+            @Override
+            public void onResponse(Collection<SeriesUpdate> updates) {
+                final Map<Integer, Long> updateTimes = new HashMap<Integer, Long>();
+                for (SeriesUpdate update : updates) {
+                    updateTimes.put(update.seriesId, update.time);
+                }
+
+                final SnapshotStore snapshotStore = sSnapshotStore;
+                if (snapshotStore == null) {
+                    listener.onResponse(
+                            refreshStaleSeries(seriesIds, updateTimes, periodStart, null));
+                    return;
+                }
+
+                sSnapshotExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliverCached(listener, refreshStaleSeries(seriesIds, updateTimes,
+                                                                   periodStart, snapshotStore));
+                    }
+                });
+            }
+        }, errorListener);
+    }
+
+    /**
+     * Download every cached series that changed after it was downloaded again. The cached bundle
+     * is kept until the new one arrives, so the request can be made conditional on it and a 304
+     * reuses it
+     *
+     * @param snapshotStore The snapshot store to check as well as the memory cache, or null
+     * @return The IDs of the series being downloaded again
+     */
+    private Collection<Integer> refreshStaleSeries(Collection<Integer> seriesIds,
+                                                   Map<Integer, Long> updateTimes,
+                                                   long periodStart, SnapshotStore snapshotStore) {
+        List<Integer> refreshedIds = new ArrayList<Integer>();
+        for (int seriesId : seriesIds) {
+            String cacheKey = getSeriesCacheKey(seriesId);
+            SeriesBundle cachedBundle = sSeriesCache.get(cacheKey);
+            long fetchTime = SnapshotStore.NOT_STORED;
+            if (cachedBundle != null) {
+                fetchTime = cachedBundle.fetchTime;
+            } else if (snapshotStore != null) {
+                fetchTime = snapshotStore.getSeriesBundleFetchTime(cacheKey);
+            }
+            if (fetchTime == SnapshotStore.NOT_STORED) continue;
+
+            Long updateTime = updateTimes.get(seriesId);
+            boolean changed = updateTime != null && updateTime >= fetchTime;
+            if (!changed && fetchTime >= periodStart) continue;
+
+            requestSeriesBundle(seriesId, IGNORE_SERIES_BUNDLE, null);
+            refreshedIds.add(seriesId);
+        }
+        return refreshedIds;
+    }
+
+    /**
+     * Future variant of {@link #searchSeries(String, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Series>> searchSeries(String seriesName) {
+        TvdbFuture<Collection<Series>> future = TvdbFuture.newFuture();
+        searchSeries(seriesName, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getSeriesFromImdbId(String, Response.Listener,
+     * Response.ErrorListener)}
+     */
+    public TvdbFuture<Series> getSeriesFromImdbId(String imdbId) {
+        TvdbFuture<Series> future = TvdbFuture.newFuture();
+        getSeriesFromImdbId(imdbId, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getFullSeries(Series, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<SeriesBundle> getFullSeries(Series series) {
+        TvdbFuture<SeriesBundle> future = TvdbFuture.newFuture();
+        getFullSeries(series, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getFullSeries(int, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<SeriesBundle> getFullSeries(int seriesId) {
+        TvdbFuture<SeriesBundle> future = TvdbFuture.newFuture();
+        getFullSeries(seriesId, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getSeasons(Series, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Season>> getSeasons(Series series) {
+        TvdbFuture<Collection<Season>> future = TvdbFuture.newFuture();
+        getSeasons(series, future, future);
+        return future;
+    }
 
-        mRequestQueue.add(actorRequest);
+    /**
+     * Future variant of {@link #getSeasons(int, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Season>> getSeasons(int seriesId) {
+        TvdbFuture<Collection<Season>> future = TvdbFuture.newFuture();
+        getSeasons(seriesId, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getEpisodes(Series, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Episode>> getEpisodes(Series series) {
+        TvdbFuture<Collection<Episode>> future = TvdbFuture.newFuture();
+        getEpisodes(series, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getEpisodes(int, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Episode>> getEpisodes(int seriesId) {
+        TvdbFuture<Collection<Episode>> future = TvdbFuture.newFuture();
+        getEpisodes(seriesId, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getEpisodes(Season, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Episode>> getEpisodes(Season season) {
+        TvdbFuture<Collection<Episode>> future = TvdbFuture.newFuture();
+        getEpisodes(season, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getEpisodes(int, int, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Episode>> getEpisodes(int seriesId, int seasonNumber) {
+        TvdbFuture<Collection<Episode>> future = TvdbFuture.newFuture();
+        getEpisodes(seriesId, seasonNumber, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getEpisode(Series, int, int, Response.Listener,
+     * Response.ErrorListener)}
+     */
+    public TvdbFuture<Episode> getEpisode(Series series, int seasonNumber, int episodeNumber) {
+        TvdbFuture<Episode> future = TvdbFuture.newFuture();
+        getEpisode(series, seasonNumber, episodeNumber, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getEpisode(Series, int, int, SHOW_ORDER, Response.Listener,
+     * Response.ErrorListener)}
+     */
+    public TvdbFuture<Episode> getEpisode(Series series, int seasonNumber, int episodeNumber,
+                                          SHOW_ORDER showOrder) {
+        TvdbFuture<Episode> future = TvdbFuture.newFuture();
+        getEpisode(series, seasonNumber, episodeNumber, showOrder, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getEpisode(int, int, int, SHOW_ORDER, Response.Listener,
+     * Response.ErrorListener)}
+     */
+    public TvdbFuture<Episode> getEpisode(int seriesId, int seasonNumber, int episodeNumber,
+                                          SHOW_ORDER showOrder) {
+        TvdbFuture<Episode> future = TvdbFuture.newFuture();
+        getEpisode(seriesId, seasonNumber, episodeNumber, showOrder, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getEpisode(Season, int, SHOW_ORDER, Response.Listener,
+     * Response.ErrorListener)}
+     */
+    public TvdbFuture<Episode> getEpisode(Season season, int episodeNumber, SHOW_ORDER showOrder) {
+        TvdbFuture<Episode> future = TvdbFuture.newFuture();
+        getEpisode(season, episodeNumber, showOrder, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getBanners(Series, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Banner>> getBanners(Series series) {
+        TvdbFuture<Collection<Banner>> future = TvdbFuture.newFuture();
+        getBanners(series, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getBanners(int, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Banner>> getBanners(int seriesId) {
+        TvdbFuture<Collection<Banner>> future = TvdbFuture.newFuture();
+        getBanners(seriesId, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getBanners(int, int, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Banner>> getBanners(int seriesId, int seasonNumber) {
+        TvdbFuture<Collection<Banner>> future = TvdbFuture.newFuture();
+        getBanners(seriesId, seasonNumber, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getActors(Series, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Actor>> getActors(Series series) {
+        TvdbFuture<Collection<Actor>> future = TvdbFuture.newFuture();
+        getActors(series, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getActors(int, Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Actor>> getActors(int seriesId) {
+        TvdbFuture<Collection<Actor>> future = TvdbFuture.newFuture();
+        getActors(seriesId, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getUpdates(UPDATE_PERIOD, Response.Listener,
+     * Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<SeriesUpdate>> getUpdates(UPDATE_PERIOD period) {
+        TvdbFuture<Collection<SeriesUpdate>> future = TvdbFuture.newFuture();
+        getUpdates(period, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #refreshSeries(Collection, UPDATE_PERIOD, Response.Listener,
+     * Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Integer>> refreshSeries(Collection<Integer> seriesIds,
+                                                         UPDATE_PERIOD period) {
+        TvdbFuture<Collection<Integer>> future = TvdbFuture.newFuture();
+        refreshSeries(seriesIds, period, future, future);
+        return future;
+    }
+
+    /**
+     * Future variant of {@link #getMirrors(Response.Listener, Response.ErrorListener)}
+     */
+    public TvdbFuture<Collection<Mirror>> getMirrors() {
+        TvdbFuture<Collection<Mirror>> future = TvdbFuture.newFuture();
+        getMirrors(future, future);
+        return future;
     }
 
     private String getSeriesRequestUrl(int seriesId) {
-        return BASE_URL + mApiKey + "/series/" + seriesId + "/all/" + mLanguage + ".zip";
+        return mUrls.getSeriesUrl(seriesId);
+    }
+
+    private String getSeriesCacheKey(int seriesId) {
+        return seriesId + "/" + mLanguage;
+    }
+
+    /**
+     * @return true if the series zip is already in the series cache or on its way there, in which
+     * case streaming a separate copy of it would only parse it twice
+     */
+    boolean isSeriesCachedOrLoading(int seriesId) {
+        if (sSeriesCache.get(getSeriesCacheKey(seriesId)) != null) return true;
+        synchronized (sSeriesRequests) {
+            return sSeriesRequests.containsKey(getSeriesRequestUrl(seriesId));
+        }
+    }
+
+    private static <T> Response.Listener<Collection<T>> asSingleChunk(
+            final ChunkListener<T> chunkListener) {
+        return new Response.Listener<Collection<T>>() {
+            @Override
+            public void onResponse(Collection<T> items) {
+                chunkListener.onChunk(new ArrayList<T>(items));
+                chunkListener.onComplete(items);
+            }
+        };
+    }
+
+    /**
+     * Stream the series zip to the parser, unless the series is cached, has a snapshot or is
+     * already being downloaded. Then getWhole is run instead to take the items from the bundle in
+     * one go, rather than parsing the zip again
+     */
+    private <T> void getSeriesChunks(final int seriesId,
+                                     final StreamingXmlObjectListParser<T> parser,
+                                     final int chunkSize, final ChunkListener<T> chunkListener,
+                                     final Response.ErrorListener errorListener,
+                                     final Runnable getWhole) {
+        if (isSeriesCachedOrLoading(seriesId)) {
+            getWhole.run();
+            return;
+        }
+
+        final SnapshotStore snapshotStore = sSnapshotStore;
+        if (snapshotStore == null) {
+            streamSeries(seriesId, parser, chunkSize, chunkListener, errorListener);
+            return;
+        }
+
+        sSnapshotExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (loadSnapshot(getSeriesCacheKey(seriesId), snapshotStore) != null) {
+                    // Now in the series cache
+                    sMainHandler.post(getWhole);
+                } else {
+                    streamSeries(seriesId, parser, chunkSize, chunkListener, errorListener);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stream the series zip through the shared series request, so other callers for the series
+     * join the download, and parse the whole bundle after streaming to fill the series cache and
+     * the snapshot
+     */
+    private <T> void streamSeries(int seriesId, final StreamingXmlObjectListParser<T> parser,
+                                  final int chunkSize, final ChunkListener<T> chunkListener,
+                                  final Response.ErrorListener errorListener) {
+        addSeriesRequest(seriesId, new SeriesSubscriber() {
+            @Override
+            public boolean subscribe(SharedZippedXmlRequest seriesRequest) {
+                return seriesRequest.addStreamingParser(parser, chunkSize, chunkListener,
+                                                        errorListener, mPriority, mTag);
+            }
+        });
+        requestSeriesBundle(seriesId, IGNORE_SERIES_BUNDLE, null);
+    }
+
+    /**
+     * Get everything in the series zip, from the series cache or a snapshot if possible
+     */
+    private void getSeriesBundle(final int seriesId,
+                                 final Response.Listener<SeriesBundle> listener,
+                                 final Response.ErrorListener errorListener) {
+        final String cacheKey = getSeriesCacheKey(seriesId);
+        SeriesBundle cachedBundle = sSeriesCache.get(cacheKey);
+        if (cachedBundle != null) {
+            deliverCached(listener, cachedBundle);
+            return;
+        }
+
+        final SnapshotStore snapshotStore = sSnapshotStore;
+        if (snapshotStore == null) {
+            requestSeriesBundle(seriesId, listener, errorListener);
+            return;
+        }
+
+        sSnapshotExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                SeriesBundle seriesBundle = loadSnapshot(cacheKey, snapshotStore);
+                if (seriesBundle != null) {
+                    deliverCached(listener, seriesBundle);
+                } else {
+                    requestSeriesBundle(seriesId, listener, errorListener);
+                }
+            }
+        });
+    }
+
+    /**
+     * Read the bundle's snapshot into the series cache. Runs on the snapshot executor
+     *
+     * @return The bundle, or null if it is neither cached nor stored
+     */
+    private static SeriesBundle loadSnapshot(String cacheKey, SnapshotStore snapshotStore) {
+        // An earlier snapshot read may have loaded it while this one was queued
+        SeriesBundle seriesBundle = sSeriesCache.get(cacheKey);
+        if (seriesBundle == null) {
+            seriesBundle = snapshotStore.getSeriesBundle(cacheKey);
+            if (seriesBundle != null) {
+                sSeriesCache.put(cacheKey, seriesBundle);
+                indexSeries(seriesBundle);
+            }
+        }
+        return seriesBundle;
+    }
+
+    private void requestSeriesBundle(int seriesId, final Response.Listener<SeriesBundle> listener,
+                                     Response.ErrorListener errorListener) {
+        final String cacheKey = getSeriesCacheKey(seriesId);
+        final long requestTime = System.currentTimeMillis() / 1000;
+        addSeriesRequest(seriesId, new SeriesBundleParser(mLanguage),
+                         new Response.Listener<Collection<SeriesBundle>>() {
+                             @Override
+                             public void onResponse(Collection<SeriesBundle> seriesBundles) {
+                                 SeriesBundle seriesBundle = seriesBundles.iterator().next();
+                                 if (seriesBundle.fetchTime < requestTime) {
+                                     seriesBundle = restampSeriesBundle(cacheKey, seriesBundle,
+                                                                        requestTime);
+                                 }
+                                 // Every subscriber gets the same bundle, only save it once
+                                 if (sSeriesCache.put(cacheKey, seriesBundle) != seriesBundle) {
+                                     saveSnapshot(cacheKey, seriesBundle);
+                                     indexSeries(seriesBundle);
+                                 }
+                                 listener.onResponse(seriesBundle);
+                             }
+                         }, errorListener);
+    }
+
+    /**
+     * A bundle older than its request was reused on a 304, so it is as current as a new download.
+     * Give it a new fetch time so refreshes don't keep finding it stale. Runs on the main thread,
+     * so the first subscriber stamps the bundle and the others take the stamped one from the cache
+     */
+    private static SeriesBundle restampSeriesBundle(String cacheKey, SeriesBundle seriesBundle,
+                                                    long requestTime) {
+        SeriesBundle cachedBundle = sSeriesCache.get(cacheKey);
+        if (cachedBundle != null && cachedBundle.fetchTime >= requestTime) return cachedBundle;
+
+        return seriesBundle.withFetchTime(System.currentTimeMillis() / 1000);
+    }
+
+    private static void indexSearchResults(Collection<Series> seriesList) {
+        SeriesIndex seriesIndex = sSeriesIndex;
+        if (seriesIndex != null) seriesIndex.addIfAbsent(seriesList);
+    }
+
+    /**
+     * The series record in a series zip is complete, so it replaces any search result
+     */
+    private static void indexSeries(SeriesBundle seriesBundle) {
+        SeriesIndex seriesIndex = sSeriesIndex;
+        if (seriesIndex != null && seriesBundle.series != null) {
+            seriesIndex.add(seriesBundle.series);
+        }
+    }
+
+    private static void saveSnapshot(final String key, final SeriesBundle seriesBundle) {
+        final SnapshotStore snapshotStore = sSnapshotStore;
+        if (snapshotStore == null) return;
+
+        sSnapshotExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                snapshotStore.putSeriesBundle(key, seriesBundle);
+            }
+        });
+    }
+
+    /**
+     * Post a cached result to the main thread, the same as Volley would deliver it
+     */
+    private <T> void deliverCached(final Response.Listener<T> listener, final T response) {
+        sMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onResponse(response);
+            }
+        });
+    }
+
+    private <T> void addSeriesRequest(int seriesId, final XmlObjectListParser<T> parser,
+                                      final Response.Listener<Collection<T>> listener,
+                                      final Response.ErrorListener errorListener) {
+        addSeriesRequest(seriesId, new SeriesSubscriber() {
+            @Override
+            public boolean subscribe(SharedZippedXmlRequest seriesRequest) {
+                return seriesRequest.addParser(parser, listener, errorListener, mPriority, mTag);
+            }
+        });
+    }
+
+    /**
+     * Subscribe to the series zip, joining the request that is already in flight for the same
+     * series and language if there is one, so the zip is only downloaded and unpacked once. A
+     * request that is still queued with a lower priority than this instance's is replaced rather
+     * than joined
+     */
+    private void addSeriesRequest(int seriesId, SeriesSubscriber subscriber) {
+        String requestUrl = getSeriesRequestUrl(seriesId);
+        SharedZippedXmlRequest seriesRequest;
+        synchronized (sSeriesRequests) {
+            seriesRequest = sSeriesRequests.get(requestUrl);
+            if (seriesRequest != null && subscriber.subscribe(seriesRequest)) return;
+
+            seriesRequest = new SharedZippedXmlRequest(requestUrl, REMOVE_CLOSED_SERIES_REQUEST);
+            seriesRequest.setPriority(mPriority);
+            seriesRequest.setRevalidationSource(
+                    new CachedSeriesSource(getSeriesCacheKey(seriesId)));
+            seriesRequest.setTimingObserver(sTimingObserver);
+            subscriber.subscribe(seriesRequest);
+            sSeriesRequests.put(requestUrl, seriesRequest);
+        }
+        mRequestQueue.add(seriesRequest);
+    }
+
+    /**
+     * Adds a subscriber to a series request, see {@link SharedZippedXmlRequest#addParser}
+     */
+    private interface SeriesSubscriber {
+        public boolean subscribe(SharedZippedXmlRequest seriesRequest);
+    }
+
+    private void addRequest(XmlRequest<?> request) {
+        request.setPriority(mPriority);
+        request.setTag(mTag);
+        request.setTimingObserver(sTimingObserver);
+        mRequestQueue.add(request);
+    }
+
+    private static final SharedZippedXmlRequest.OnClosedListener REMOVE_CLOSED_SERIES_REQUEST =
+            new SharedZippedXmlRequest.OnClosedListener() {
+                @Override
+                public void onClosed(SharedZippedXmlRequest request) {
+                    synchronized (sSeriesRequests) {
+                        if (sSeriesRequests.get(request.getUrl()) == request) {
+                            sSeriesRequests.remove(request.getUrl());
+                        }
+                    }
+                }
+            };
+
+    /**
+     * Refreshed bundles only need to land in the caches
+     */
+    private static final Response.Listener<SeriesBundle> IGNORE_SERIES_BUNDLE =
+            new Response.Listener<SeriesBundle>() {
+                @Override
+                public void onResponse(SeriesBundle seriesBundle) {
+                }
+            };
+
+    /**
+     * Answers revalidated series zip and actor requests from the bundle in the series cache, or
+     * failing that in the snapshot store, so 304s don't need results kept anywhere else
+     */
+    private static class CachedSeriesSource implements RevalidationSource {
+        private final String mCacheKey;
+
+        CachedSeriesSource(String cacheKey) {
+            mCacheKey = cacheKey;
+        }
+
+        @Override
+        public Object getResult(String url, Object xmlParser, long validatedTime) {
+            if (!(xmlParser instanceof SeriesBundleParser) &&
+                !(xmlParser instanceof ActorListParser)) {
+                return null;
+            }
+
+            SeriesBundle seriesBundle = sSeriesCache.get(mCacheKey);
+            SnapshotStore snapshotStore = sSnapshotStore;
+            if (seriesBundle == null && snapshotStore != null) {
+                seriesBundle = snapshotStore.getSeriesBundle(mCacheKey);
+            }
+            if (seriesBundle == null || seriesBundle.fetchTime < validatedTime) return null;
+
+            return (xmlParser instanceof SeriesBundleParser)
+                   ? Collections.singletonList(seriesBundle) : seriesBundle.actors;
+        }
     }
 
     public static enum SHOW_ORDER {DEFAULT, DVD, ABSOLUTE}
+
+    public static enum UPDATE_PERIOD {DAY, WEEK, MONTH}
 }
@@ -0,0 +1,194 @@
+package com.sburba.tvdbapi;
+
+import com.sburba.tvdbapi.model.Actor;
+import com.sburba.tvdbapi.model.Episode;
+import com.sburba.tvdbapi.model.Series;
+import com.sburba.tvdbapi.model.SeriesBundle;
+import com.sburba.tvdbapi.model.SeriesUpdate;
+import com.sburba.tvdbapi.parser.ActorListParser;
+import com.sburba.tvdbapi.parser.EpisodeParser;
+import com.sburba.tvdbapi.parser.MirrorListParser;
+import com.sburba.tvdbapi.parser.SeriesBundleParser;
+import com.sburba.tvdbapi.parser.SeriesParser;
+import com.sburba.tvdbapi.parser.UpdatesParser;
+import com.sburba.tvdbapi.transport.Mirror;
+import com.sburba.tvdbapi.transport.Transport;
+import com.sburba.tvdbapi.transport.TransportResponse;
+import com.sburba.tvdbapi.transport.UrlConnectionTransport;
+import com.sburba.tvdbapi.xml.XmlException;
+import com.sburba.tvdbapi.xml.XmlObjectListParser;
+import com.sburba.tvdbapi.xml.XmlObjectParser;
+import com.sburba.tvdbapi.xml.XmlUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Blocking counterpart of {@link TvdbApi} for use off Android, for example in a backend job that
+ * pre-builds catalog data. It requests the same URLs and parses them with the same parsers, but
+ * every call blocks the calling thread and returns the result instead of going through a Volley
+ * {@link com.android.volley.RequestQueue}, so it doesn't touch Volley, the main looper or the
+ * Android caches.
+ * <p/>
+ * The client has no dispatcher of its own: as many fetches run at once as there are threads
+ * calling it. It keeps no per-thread state, the only shared state is the small pool of idle XML
+ * parsers, which is locked just long enough to take or return one. So it suits a virtual thread
+ * per fetch when thousands of series have to be fetched concurrently. Seasons, episodes and
+ * banners of a series are all part of {@link #getFullSeries}
+ */
+public class TvdbClient {
+
+    private static final String DEFAULT_LANGUAGE = "en";
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    private static final String ZIP_ENTRY_CHARSET = "UTF-8";
+    private static final Map<String, String> NO_HEADERS = Collections.emptyMap();
+    /**
+     * Plain XML shrinks a lot when gzipped, zips don't
+     */
+    private static final Map<String, String> ACCEPT_GZIP =
+            Collections.singletonMap("Accept-Encoding", "gzip");
+
+    private final String mLanguage;
+    private final TvdbUrls mUrls;
+    private final Transport mTransport;
+
+    /**
+     * Create a client that fetches over {@link UrlConnectionTransport}
+     *
+     * @param apiKey   Your TVDB api key
+     * @param language The two letter language code to use for queries, if null defaults to "en"
+     */
+    public TvdbClient(String apiKey, String language) {
+        this(apiKey, language, new UrlConnectionTransport());
+    }
+
+    /**
+     * @param apiKey    Your TVDB api key
+     * @param language  The two letter language code to use for queries, if null defaults to "en"
+     * @param transport The {@link Transport} to fetch with
+     */
+    public TvdbClient(String apiKey, String language, Transport transport) {
+        mLanguage = (language == null) ? DEFAULT_LANGUAGE : language;
+        mUrls = new TvdbUrls(apiKey, mLanguage);
+        mTransport = transport;
+    }
+
+    /**
+     * Search the TVDB for a {@link Series} based on the series name
+     *
+     * @throws IOException  If the response couldn't be fetched
+     * @throws XmlException If the response couldn't be parsed
+     */
+    public Collection<Series> searchSeries(String seriesName) throws IOException, XmlException {
+        return fetchList(mUrls.getSeriesSearchUrl(seriesName), new SeriesParser());
+    }
+
+    /**
+     * Get a {@link Series} from the IMDB ID
+     *
+     * @throws IOException  If the response couldn't be fetched
+     * @throws XmlException If the response couldn't be parsed
+     */
+    public Series getSeriesFromImdbId(String imdbId) throws IOException, XmlException {
+        return fetchObject(mUrls.getImdbSeriesSearchUrl(imdbId), new SeriesParser());
+    }
+
+    /**
+     * Get everything about a {@link Series} at once: the series record, episodes, seasons, banners
+     * and actors
+     *
+     * @throws IOException  If the response couldn't be fetched
+     * @throws XmlException If the response couldn't be parsed
+     */
+    public SeriesBundle getFullSeries(int seriesId) throws IOException, XmlException {
+        Collection<SeriesBundle> seriesBundles =
+                fetchZip(mUrls.getSeriesUrl(seriesId), new SeriesBundleParser(mLanguage));
+        if (seriesBundles.isEmpty()) throw new XmlException("No series in zip for " + seriesId);
+        return seriesBundles.iterator().next();
+    }
+
+    /**
+     * Get a specific {@link Episode} with a specific {@link TvdbApi.SHOW_ORDER}
+     *
+     * @throws IOException  If the response couldn't be fetched
+     * @throws XmlException If the response couldn't be parsed
+     */
+    public Episode getEpisode(int seriesId, int seasonNumber, int episodeNumber,
+                              TvdbApi.SHOW_ORDER showOrder) throws IOException, XmlException {
+        String url = mUrls.getEpisodeUrl(seriesId, seasonNumber, episodeNumber, showOrder);
+        return fetchObject(url, new EpisodeParser(mLanguage));
+    }
+
+    /**
+     * Get only the {@link Actor}s of a series, without downloading the series zip
+     *
+     * @throws IOException  If the response couldn't be fetched
+     * @throws XmlException If the response couldn't be parsed
+     */
+    public Collection<Actor> getActors(int seriesId) throws IOException, XmlException {
+        return fetchList(mUrls.getActorsUrl(seriesId), new ActorListParser());
+    }
+
+    /**
+     * Get the series that changed during the last day, week or month from a TVDB updates feed
+     *
+     * @throws IOException  If the response couldn't be fetched
+     * @throws XmlException If the response couldn't be parsed
+     */
+    public Collection<SeriesUpdate> getUpdates(TvdbApi.UPDATE_PERIOD period)
+            throws IOException, XmlException {
+        return fetchZip(mUrls.getUpdatesUrl(period), new UpdatesParser());
+    }
+
+    /**
+     * Get the mirrors the TVDB lists for spreading its traffic, to route with a
+     * {@link com.sburba.tvdbapi.transport.MirrorSelector}
+     *
+     * @throws IOException  If the response couldn't be fetched
+     * @throws XmlException If the response couldn't be parsed
+     */
+    public Collection<Mirror> getMirrors() throws IOException, XmlException {
+        return fetchList(mUrls.getMirrorsUrl(), new MirrorListParser());
+    }
+
+    private <T> T fetchObject(String url, XmlObjectParser<T> xmlParser)
+            throws IOException, XmlException {
+        TransportResponse response = fetch(url, ACCEPT_GZIP);
+        return xmlParser.parseXmlStream(getBodyStream(response), response.getCharset());
+    }
+
+    private <T> Collection<T> fetchList(String url, XmlObjectListParser<T> xmlParser)
+            throws IOException, XmlException {
+        TransportResponse response = fetch(url, ACCEPT_GZIP);
+        return xmlParser.parseListFromXmlStream(getBodyStream(response), response.getCharset());
+    }
+
+    private <T> Collection<T> fetchZip(String url, XmlObjectListParser<T> xmlParser)
+            throws IOException, XmlException {
+        TransportResponse response = fetch(url, NO_HEADERS);
+        // The entries are always UTF-8 whatever the zip itself is served as
+        return XmlUtil.parseZip(xmlParser, getBodyStream(response), ZIP_ENTRY_CHARSET);
+    }
+
+    /**
+     * @return The response body, inflated as it is read if the server gzipped it
+     */
+    private static InputStream getBodyStream(TransportResponse response) throws IOException {
+        return XmlUtil.decodeContent(new ByteArrayInputStream(response.data),
+                                     response.getHeader(HEADER_CONTENT_ENCODING));
+    }
+
+    private TransportResponse fetch(String url, Map<String, String> headers) throws IOException {
+        TransportResponse response = mTransport.fetch(url, headers);
+        if (response.statusCode != HttpURLConnection.HTTP_OK) {
+            throw new IOException("Unexpected response code " + response.statusCode + " for " +
+                                  url);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,276 @@
+package com.sburba.tvdbapi;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The result of a {@link TvdbApi} call that hasn't necessarily arrived yet. Futures can be chained
+ * with {@link #then} and joined with {@link #allOf}, so dependent calls don't have to be nested
+ * listeners and independent calls can run in parallel.
+ * <p/>
+ * Listeners are always called on the main thread. {@link #get()} blocks until the result arrives,
+ * and since results are delivered on the main thread it must not be called from the main thread
+ */
+public class TvdbFuture<T> implements Future<T>, Response.Listener<T>, Response.ErrorListener {
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private final List<Response.Listener<T>> mListeners = new ArrayList<Response.Listener<T>>();
+    private final List<Response.ErrorListener> mErrorListeners =
+            new ArrayList<Response.ErrorListener>();
+    private boolean mDone = false;
+    private boolean mCanceled = false;
+    private T mResult;
+    private VolleyError mError;
+
+    /**
+     * Create a future to pass as both the listener and the error listener of a request
+     */
+    public static <T> TvdbFuture<T> newFuture() {
+        return new TvdbFuture<T>();
+    }
+
+    /**
+     * Create a future that already has a result
+     */
+    public static <T> TvdbFuture<T> completed(T result) {
+        TvdbFuture<T> future = new TvdbFuture<T>();
+        future.onResponse(result);
+        return future;
+    }
+
+    /**
+     * Join futures that run in parallel
+     *
+     * @return A future of every result, in the order the futures were given, which fails with the
+     * first error of any of them
+     */
+    public static TvdbFuture<List<Object>> allOf(TvdbFuture<?>... futures) {
+        return allOf(Arrays.asList(futures));
+    }
+
+    /**
+     * Join futures that run in parallel
+     *
+     * @return A future of every result, in the order the futures were given, which fails with the
+     * first error of any of them
+     */
+    public static TvdbFuture<List<Object>> allOf(final List<? extends TvdbFuture<?>> futures) {
+        final TvdbFuture<List<Object>> joined = new TvdbFuture<List<Object>>();
+        if (futures.isEmpty()) {
+            joined.onResponse(Collections.<Object>emptyList());
+            return joined;
+        }
+
+        final Object[] results = new Object[futures.size()];
+        final int[] remaining = {futures.size()};
+        for (int i = 0; i < futures.size(); i++) {
+            final int index = i;
+            addUntypedListener(futures.get(i), new Response.Listener<Object>() {
+                @Override
+                public void onResponse(Object result) {
+                    results[index] = result;
+                    if (--remaining[0] == 0) joined.onResponse(Arrays.asList(results));
+                }
+            }, joined);
+        }
+        return joined;
+    }
+
+    private static <T> void addUntypedListener(TvdbFuture<T> future,
+                                               final Response.Listener<Object> listener,
+                                               Response.ErrorListener errorListener) {
+        future.addListener(new Response.Listener<T>() {
+            @Override
+            public void onResponse(T result) {
+                listener.onResponse(result);
+            }
+        }, errorListener);
+    }
+
+    /**
+     * Start a call that depends on this result once it arrives
+     *
+     * @return A future of the dependent call's result, which fails if either call fails
+     */
+    public <R> TvdbFuture<R> then(final Continuation<? super T, R> continuation) {
+        final TvdbFuture<R> chained = new TvdbFuture<R>();
+        addListener(new Response.Listener<T>() {
+            @Override
+            public void onResponse(T result) {
+                continuation.then(result).addListener(chained, chained);
+            }
+        }, chained);
+        return chained;
+    }
+
+    /**
+     * Listen for the result. If it has already arrived the listener is still called later on the
+     * main thread, never from inside this method
+     *
+     * @param listener      {@link Response.Listener} for receiving the result
+     * @param errorListener {@link Response.ErrorListener} for receiving any errors, or null
+     * @return This future
+     */
+    public TvdbFuture<T> addListener(Response.Listener<T> listener,
+                                     Response.ErrorListener errorListener) {
+        boolean done;
+        synchronized (this) {
+            done = mDone;
+            if (!done) {
+                mListeners.add(listener);
+                mErrorListeners.add(errorListener);
+            }
+        }
+        if (done) {
+            final List<Response.Listener<T>> listeners = Collections.singletonList(listener);
+            final List<Response.ErrorListener> errorListeners =
+                    Collections.singletonList(errorListener);
+            sMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    dispatch(listeners, errorListeners);
+                }
+            });
+        }
+        return this;
+    }
+
+    @Override
+    public void onResponse(T response) {
+        complete(response, null);
+    }
+
+    @Override
+    public void onErrorResponse(VolleyError error) {
+        complete(null, error);
+    }
+
+    /**
+     * Stop waiting for the result. The request itself is not canceled, its result is just dropped
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if (mDone) return false;
+            mDone = true;
+            mCanceled = true;
+            mListeners.clear();
+            mErrorListeners.clear();
+            notifyAll();
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return mCanceled;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return mDone;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        try {
+            return get(0, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * @param timeout Maximum time to wait, or 0 to wait forever
+     */
+    @Override
+    public T get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("get() would deadlock on the main thread");
+        }
+
+        long timeoutMs = unit.toMillis(timeout);
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (this) {
+            while (!mDone) {
+                if (timeoutMs == 0) {
+                    wait();
+                } else {
+                    long remainingMs = deadline - System.currentTimeMillis();
+                    if (remainingMs <= 0) throw new TimeoutException();
+                    wait(remainingMs);
+                }
+            }
+            if (mCanceled) throw new CancellationException();
+            if (mError != null) throw new ExecutionException(mError);
+            return mResult;
+        }
+    }
+
+    private void complete(T result, VolleyError error) {
+        final List<Response.Listener<T>> listeners;
+        final List<Response.ErrorListener> errorListeners;
+        synchronized (this) {
+            if (mDone) return;
+            mDone = true;
+            mResult = result;
+            mError = error;
+            listeners = new ArrayList<Response.Listener<T>>(mListeners);
+            errorListeners = new ArrayList<Response.ErrorListener>(mErrorListeners);
+            mListeners.clear();
+            mErrorListeners.clear();
+            notifyAll();
+        }
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            dispatch(listeners, errorListeners);
+        } else {
+            sMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    dispatch(listeners, errorListeners);
+                }
+            });
+        }
+    }
+
+    private void dispatch(List<Response.Listener<T>> listeners,
+                          List<Response.ErrorListener> errorListeners) {
+        T result;
+        VolleyError error;
+        synchronized (this) {
+            if (mCanceled) return;
+            result = mResult;
+            error = mError;
+        }
+        for (int i = 0; i < listeners.size(); i++) {
+            if (error == null) {
+                listeners.get(i).onResponse(result);
+            } else if (errorListeners.get(i) != null) {
+                errorListeners.get(i).onErrorResponse(error);
+            }
+        }
+    }
+
+    /**
+     * A call that depends on the result of another
+     */
+    public interface Continuation<T, R> {
+        public TvdbFuture<R> then(T result);
+    }
+}
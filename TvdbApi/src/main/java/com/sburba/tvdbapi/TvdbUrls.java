@@ -0,0 +1,78 @@
+package com.sburba.tvdbapi;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+/**
+ * Builds the TVDB api URLs, shared by {@link TvdbApi} and {@link TvdbClient} so both talk to the
+ * same endpoints
+ */
+class TvdbUrls {
+
+    private static final String CHAR_ENCODING = "UTF-8";
+    private static final String BASE_URL = "http://thetvdb.com/api/";
+    private static final String SERIES_SEARCH = BASE_URL + "GetSeries.php?seriesname=";
+    private static final String IMDB_SERIES_SEARCH = BASE_URL + "GetSeriesByRemoteID.php?imdbid=";
+
+    private final String mApiKey;
+    private final String mLanguage;
+
+    TvdbUrls(String apiKey, String language) {
+        mApiKey = apiKey;
+        mLanguage = language;
+    }
+
+    static String encodeQuery(String query) {
+        try {
+            return URLEncoder.encode(query, CHAR_ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(CHAR_ENCODING + " is not supported");
+        }
+    }
+
+    String getSeriesSearchUrl(String seriesName) {
+        return SERIES_SEARCH + encodeQuery(seriesName) + "&language=" + mLanguage;
+    }
+
+    String getImdbSeriesSearchUrl(String imdbId) {
+        return IMDB_SERIES_SEARCH + imdbId;
+    }
+
+    String getSeriesUrl(int seriesId) {
+        return BASE_URL + mApiKey + "/series/" + seriesId + "/all/" + mLanguage + ".zip";
+    }
+
+    String getEpisodeUrl(int seriesId, int seasonNumber, int episodeNumber,
+                         TvdbApi.SHOW_ORDER showOrder) {
+        String showOrderModifier;
+        if (showOrder == TvdbApi.SHOW_ORDER.ABSOLUTE) {
+            showOrderModifier = "/absolute/";
+        } else if (showOrder == TvdbApi.SHOW_ORDER.DVD) {
+            showOrderModifier = "/dvd/";
+        } else {
+            showOrderModifier = "/default/";
+        }
+        return BASE_URL + mApiKey + "/series/" + seriesId + showOrderModifier + seasonNumber + "/" +
+               episodeNumber + "/" + mLanguage + ".xml";
+    }
+
+    String getMirrorsUrl() {
+        return BASE_URL + mApiKey + "/mirrors.xml";
+    }
+
+    String getActorsUrl(int seriesId) {
+        return BASE_URL + mApiKey + "/series/" + seriesId + "/actors.xml";
+    }
+
+    String getUpdatesUrl(TvdbApi.UPDATE_PERIOD period) {
+        String periodName;
+        if (period == TvdbApi.UPDATE_PERIOD.MONTH) {
+            periodName = "month";
+        } else if (period == TvdbApi.UPDATE_PERIOD.WEEK) {
+            periodName = "week";
+        } else {
+            periodName = "day";
+        }
+        return BASE_URL + mApiKey + "/updates/updates_" + periodName + ".zip";
+    }
+}
@@ -0,0 +1,23 @@
+package com.sburba.tvdbapi.cache;
+
+import android.support.v4.util.LruCache;
+
+import com.sburba.tvdbapi.model.SeriesBundle;
+
+/**
+ * In-memory cache of parsed {@link SeriesBundle}s, evicted by their estimated retained size
+ */
+public class SeriesBundleCache extends LruCache<String, SeriesBundle> {
+
+    /**
+     * @param maxSize The maximum number of bytes the cached bundles should retain
+     */
+    public SeriesBundleCache(int maxSize) {
+        super(maxSize);
+    }
+
+    @Override
+    protected int sizeOf(String key, SeriesBundle value) {
+        return value.getEstimatedSize();
+    }
+}
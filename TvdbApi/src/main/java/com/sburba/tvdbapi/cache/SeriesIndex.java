@@ -0,0 +1,191 @@
+package com.sburba.tvdbapi.cache;
+
+import com.sburba.tvdbapi.model.Series;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory full-text index over {@link Series} records, so a library of known series can be
+ * searched without a network call. The name, overview, network, genres and actors of each series
+ * are split into lower case words, and each word maps to the series containing it. Every query
+ * word matches words it is a prefix of, and a series has to match all of the query words.
+ * Matches in the name rank above matches in the actors, genres and network, which rank above
+ * matches in the overview.
+ * <p/>
+ * The index is updated one series at a time and is safe to use from any thread. To keep it across
+ * restarts save {@link #getAll()}, for example with {@link SnapshotStore#putSeriesList}, and
+ * restore it with {@link #addAll}
+ */
+public class SeriesIndex {
+
+    private static final int WEIGHT_OVERVIEW = 1;
+    private static final int WEIGHT_DETAILS = 2;
+    private static final int WEIGHT_NAME = 4;
+
+    /**
+     * Word -> series id -> weight of the best field the word appears in
+     */
+    private final TreeMap<String, Map<Integer, Integer>> mPostings =
+            new TreeMap<String, Map<Integer, Integer>>();
+    private final Map<Integer, Series> mSeries = new HashMap<Integer, Series>();
+    private final Map<Integer, Set<String>> mWords = new HashMap<Integer, Set<String>>();
+
+    /**
+     * Add a series, replacing the series with the same id if there is one
+     */
+    public synchronized void add(Series series) {
+        remove(series.id);
+
+        Map<String, Integer> words = new HashMap<String, Integer>();
+        addWords(words, series.overview, WEIGHT_OVERVIEW);
+        addWords(words, series.network, WEIGHT_DETAILS);
+        addWords(words, series.genres, WEIGHT_DETAILS);
+        addWords(words, series.actors, WEIGHT_DETAILS);
+        addWords(words, series.name, WEIGHT_NAME);
+        for (Map.Entry<String, Integer> word : words.entrySet()) {
+            Map<Integer, Integer> postings = mPostings.get(word.getKey());
+            if (postings == null) {
+                postings = new HashMap<Integer, Integer>();
+                mPostings.put(word.getKey(), postings);
+            }
+            postings.put(series.id, word.getValue());
+        }
+        mSeries.put(series.id, series);
+        mWords.put(series.id, words.keySet());
+    }
+
+    /**
+     * Add every series, replacing series with the same ids
+     */
+    public synchronized void addAll(Collection<Series> seriesList) {
+        for (Series series : seriesList) {
+            add(series);
+        }
+    }
+
+    /**
+     * Add the series that aren't indexed yet. Search results carry fewer fields than a full
+     * series record, so they shouldn't replace one
+     */
+    public synchronized void addIfAbsent(Collection<Series> seriesList) {
+        for (Series series : seriesList) {
+            if (!mSeries.containsKey(series.id)) add(series);
+        }
+    }
+
+    /**
+     * @return true if the series was indexed
+     */
+    public synchronized boolean remove(int seriesId) {
+        if (mSeries.remove(seriesId) == null) return false;
+        for (String word : mWords.remove(seriesId)) {
+            Map<Integer, Integer> postings = mPostings.get(word);
+            postings.remove(seriesId);
+            if (postings.isEmpty()) mPostings.remove(word);
+        }
+        return true;
+    }
+
+    public synchronized List<Series> getAll() {
+        return new ArrayList<Series>(mSeries.values());
+    }
+
+    public synchronized int size() {
+        return mSeries.size();
+    }
+
+    /**
+     * @return The series matching every word of the query, best matches first
+     */
+    public synchronized List<Series> search(String query) {
+        List<String> queryWords = new ArrayList<String>();
+        addWords(queryWords, query);
+        if (queryWords.isEmpty()) return new ArrayList<Series>();
+
+        Map<Integer, Integer> scores = null;
+        for (String queryWord : queryWords) {
+            Map<Integer, Integer> wordScores = new HashMap<Integer, Integer>();
+            SortedMap<String, Map<Integer, Integer>> matches =
+                    mPostings.subMap(queryWord, queryWord + Character.MAX_VALUE);
+            for (Map<Integer, Integer> postings : matches.values()) {
+                for (Map.Entry<Integer, Integer> posting : postings.entrySet()) {
+                    Integer score = wordScores.get(posting.getKey());
+                    if (score == null || score < posting.getValue()) {
+                        wordScores.put(posting.getKey(), posting.getValue());
+                    }
+                }
+            }
+
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                Map<Integer, Integer> combined = new HashMap<Integer, Integer>();
+                for (Map.Entry<Integer, Integer> score : scores.entrySet()) {
+                    Integer wordScore = wordScores.get(score.getKey());
+                    if (wordScore != null) {
+                        combined.put(score.getKey(), score.getValue() + wordScore);
+                    }
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) return new ArrayList<Series>();
+        }
+
+        List<Series> results = new ArrayList<Series>(scores.size());
+        for (Integer seriesId : scores.keySet()) {
+            results.add(mSeries.get(seriesId));
+        }
+        Collections.sort(results, new ScoreOrder(scores));
+        return results;
+    }
+
+    private static void addWords(Map<String, Integer> words, String[] texts, int weight) {
+        if (texts == null) return;
+        for (String text : texts) {
+            addWords(words, text, weight);
+        }
+    }
+
+    private static void addWords(Map<String, Integer> words, String text, int weight) {
+        List<String> textWords = new ArrayList<String>();
+        addWords(textWords, text);
+        for (String word : textWords) {
+            Integer previous = words.get(word);
+            if (previous == null || previous < weight) words.put(word, weight);
+        }
+    }
+
+    private static void addWords(List<String> words, String text) {
+        if (text == null) return;
+        for (String word : text.toLowerCase(Locale.US).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() > 0) words.add(word);
+        }
+    }
+
+    private static class ScoreOrder implements Comparator<Series> {
+        private final Map<Integer, Integer> mScores;
+
+        ScoreOrder(Map<Integer, Integer> scores) {
+            mScores = scores;
+        }
+
+        @Override
+        public int compare(Series lhs, Series rhs) {
+            int byScore = mScores.get(rhs.id) - mScores.get(lhs.id);
+            if (byScore != 0) return byScore;
+            if (lhs.name == null) return (rhs.name == null) ? 0 : 1;
+            if (rhs.name == null) return -1;
+            return lhs.name.compareToIgnoreCase(rhs.name);
+        }
+    }
+}
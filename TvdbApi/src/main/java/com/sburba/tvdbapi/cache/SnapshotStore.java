@@ -0,0 +1,403 @@
+package com.sburba.tvdbapi.cache;
+
+import android.util.Log;
+
+import com.sburba.tvdbapi.model.Actor;
+import com.sburba.tvdbapi.model.Banner;
+import com.sburba.tvdbapi.model.Episode;
+import com.sburba.tvdbapi.model.Season;
+import com.sburba.tvdbapi.model.Series;
+import com.sburba.tvdbapi.model.SeriesBundle;
+import com.sburba.tvdbapi.util.SnapshotUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileFilter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent store of parsed TVDB data so a cold start doesn't have to download or parse anything
+ * that is already on disk. Snapshots are written in a compact versioned binary format, snapshots
+ * that were written by a different version or are older than the max age are treated as missing
+ * and deleted. When the snapshots grow past the max size the least recently written are deleted.
+ * <p/>
+ * All methods do disk IO, so don't call them from the main thread
+ */
+public class SnapshotStore {
+    public static final long NOT_STORED = -1L;
+
+    private static final String TAG = "SnapshotStore";
+    private static final boolean D = false;
+
+    private static final String CHARSET = "UTF-8";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String TEMP_SUFFIX = ".tmp";
+    /**
+     * "TVDB" in ASCII
+     */
+    private static final int MAGIC = 0x54564442;
+    /**
+     * Bump whenever the format of any snapshot changes
+     */
+    private static final int VERSION = 4;
+    private static final byte TYPE_SERIES_BUNDLE = 1;
+    private static final byte TYPE_SERIES_LIST = 2;
+
+    public static final long DEFAULT_MAX_SIZE = 32 * 1024 * 1024;
+
+    private static final Comparator<SnapshotFile> OLDEST_FIRST = new Comparator<SnapshotFile>() {
+        @Override
+        public int compare(SnapshotFile lhs, SnapshotFile rhs) {
+            return (lhs.lastModified < rhs.lastModified)
+                   ? -1 : ((lhs.lastModified == rhs.lastModified) ? 0 : 1);
+        }
+    };
+
+    private static final FileFilter SNAPSHOT_FILES = new FileFilter() {
+        @Override
+        public boolean accept(File file) {
+            return file.getName().endsWith(SNAPSHOT_SUFFIX);
+        }
+    };
+
+    private final File mDirectory;
+    private final long mMaxAge;
+    private final long mMaxSize;
+
+    /**
+     * @param directory Directory to keep the snapshots in, it will be created if needed
+     * @param maxAge    Maximum age in milliseconds of a snapshot before it is deleted
+     */
+    public SnapshotStore(File directory, long maxAge) {
+        this(directory, maxAge, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param directory Directory to keep the snapshots in, it will be created if needed
+     * @param maxAge    Maximum age in milliseconds of a snapshot before it is deleted
+     * @param maxSize   Maximum total size in bytes of the snapshots
+     */
+    public SnapshotStore(File directory, long maxAge, long maxSize) {
+        mDirectory = directory;
+        mMaxAge = maxAge;
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * @return The {@link SeriesBundle} stored for key or null if there is no usable snapshot
+     */
+    public SeriesBundle getSeriesBundle(String key) {
+        DataInputStream in = openSnapshot(key, TYPE_SERIES_BUNDLE);
+        if (in == null) return null;
+
+        try {
+            long fetchTime = in.readLong();
+            Series series = in.readBoolean() ? Series.readSnapshot(in) : null;
+            int episodeCount = SnapshotUtil.readCount(in);
+            List<Episode> episodes = new ArrayList<Episode>(episodeCount);
+            for (int i = 0; i < episodeCount; i++) {
+                episodes.add(Episode.readSnapshot(in));
+            }
+            int bannerCount = SnapshotUtil.readCount(in);
+            List<Banner> banners = new ArrayList<Banner>(bannerCount);
+            Map<Integer, Banner> bannersById = new HashMap<Integer, Banner>(bannerCount * 2);
+            for (int i = 0; i < bannerCount; i++) {
+                Banner banner = Banner.readSnapshot(in);
+                banners.add(banner);
+                bannersById.put(banner.id, banner);
+            }
+            int seasonCount = SnapshotUtil.readCount(in);
+            List<Season> seasons = new ArrayList<Season>(seasonCount);
+            for (int i = 0; i < seasonCount; i++) {
+                seasons.add(Season.readSnapshot(in, bannersById));
+            }
+            int actorCount = SnapshotUtil.readCount(in);
+            List<Actor> actors = new ArrayList<Actor>(actorCount);
+            for (int i = 0; i < actorCount; i++) {
+                actors.add(Actor.readSnapshot(in));
+            }
+            return new SeriesBundle(series, episodes, seasons, banners, actors, fetchTime);
+        } catch (IOException e) {
+            if (D) Log.w(TAG, "Error reading snapshot " + key, e);
+            remove(key);
+            return null;
+        } catch (RuntimeException e) {
+            // Damaged data the checks didn't catch, don't let it escape on every start
+            Log.w(TAG, "Discarding damaged snapshot " + key, e);
+            remove(key);
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    public void putSeriesBundle(String key, SeriesBundle seriesBundle) {
+        DataOutputStream out = createSnapshot(key, TYPE_SERIES_BUNDLE);
+        if (out == null) return;
+
+        try {
+            out.writeLong(seriesBundle.fetchTime);
+            out.writeBoolean(seriesBundle.series != null);
+            if (seriesBundle.series != null) seriesBundle.series.writeSnapshot(out);
+            out.writeInt(seriesBundle.episodes.size());
+            for (Episode episode : seriesBundle.episodes) {
+                episode.writeSnapshot(out);
+            }
+            // Banners go first, seasons refer to them by id
+            out.writeInt(seriesBundle.banners.size());
+            for (Banner banner : seriesBundle.banners) {
+                banner.writeSnapshot(out);
+            }
+            out.writeInt(seriesBundle.seasons.size());
+            for (Season season : seriesBundle.seasons) {
+                season.writeSnapshot(out);
+            }
+            out.writeInt(seriesBundle.actors.size());
+            for (Actor actor : seriesBundle.actors) {
+                actor.writeSnapshot(out);
+            }
+            commitSnapshot(key, out);
+        } catch (IOException e) {
+            Log.w(TAG, "Error writing snapshot " + key, e);
+            abortSnapshot(key, out);
+        }
+    }
+
+    /**
+     * Read only the {@link SeriesBundle#fetchTime} of a stored bundle, without loading the rest
+     *
+     * @return The fetch time or {@link #NOT_STORED} if there is no usable snapshot
+     */
+    public long getSeriesBundleFetchTime(String key) {
+        DataInputStream in = openSnapshot(key, TYPE_SERIES_BUNDLE);
+        if (in == null) return NOT_STORED;
+
+        try {
+            return in.readLong();
+        } catch (IOException e) {
+            if (D) Log.w(TAG, "Error reading snapshot " + key, e);
+            remove(key);
+            return NOT_STORED;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * @return The list of {@link Series} stored for key or null if there is no usable snapshot
+     */
+    public Collection<Series> getSeriesList(String key) {
+        DataInputStream in = openSnapshot(key, TYPE_SERIES_LIST);
+        if (in == null) return null;
+
+        try {
+            int size = SnapshotUtil.readCount(in);
+            List<Series> seriesList = new ArrayList<Series>(size);
+            for (int i = 0; i < size; i++) {
+                seriesList.add(Series.readSnapshot(in));
+            }
+            return seriesList;
+        } catch (IOException e) {
+            if (D) Log.w(TAG, "Error reading snapshot " + key, e);
+            remove(key);
+            return null;
+        } catch (RuntimeException e) {
+            // Damaged data the checks didn't catch, don't let it escape on every start
+            Log.w(TAG, "Discarding damaged snapshot " + key, e);
+            remove(key);
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    public void putSeriesList(String key, Collection<Series> seriesList) {
+        DataOutputStream out = createSnapshot(key, TYPE_SERIES_LIST);
+        if (out == null) return;
+
+        try {
+            out.writeInt(seriesList.size());
+            for (Series series : seriesList) {
+                series.writeSnapshot(out);
+            }
+            commitSnapshot(key, out);
+        } catch (IOException e) {
+            Log.w(TAG, "Error writing snapshot " + key, e);
+            abortSnapshot(key, out);
+        }
+    }
+
+    public void remove(String key) {
+        getSnapshotFile(key).delete();
+    }
+
+    /**
+     * Open the snapshot and read past the header
+     *
+     * @return The stream positioned at the start of the data or null if there is no snapshot of
+     * the given type that is recent enough
+     */
+    private DataInputStream openSnapshot(String key, byte type) {
+        File snapshotFile = getSnapshotFile(key);
+        DataInputStream in;
+        try {
+            in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(snapshotFile)));
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readByte() != type) {
+                if (D) Log.d(TAG, "Discarding incompatible snapshot " + key);
+                closeQuietly(in);
+                snapshotFile.delete();
+                return null;
+            }
+            long age = System.currentTimeMillis() - in.readLong();
+            if (age > mMaxAge || age < 0) {
+                if (D) Log.d(TAG, "Discarding expired snapshot " + key);
+                closeQuietly(in);
+                snapshotFile.delete();
+                return null;
+            }
+            return in;
+        } catch (IOException e) {
+            if (D) Log.w(TAG, "Error reading snapshot header " + key, e);
+            closeQuietly(in);
+            snapshotFile.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Start writing a snapshot to a temporary file, see {@link #commitSnapshot}
+     *
+     * @return The stream positioned after the header, or null if the file couldn't be created
+     */
+    private DataOutputStream createSnapshot(String key, byte type) {
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            Log.w(TAG, "Couldn't create snapshot directory " + mDirectory);
+            return null;
+        }
+
+        DataOutputStream out;
+        try {
+            out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(getTempFile(key))));
+        } catch (FileNotFoundException e) {
+            Log.w(TAG, "Couldn't create snapshot " + key, e);
+            return null;
+        }
+
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(type);
+            out.writeLong(System.currentTimeMillis());
+            return out;
+        } catch (IOException e) {
+            Log.w(TAG, "Error writing snapshot header " + key, e);
+            abortSnapshot(key, out);
+            return null;
+        }
+    }
+
+    /**
+     * Replace the old snapshot with the finished temporary file so readers never see a partially
+     * written snapshot, then make room for it
+     */
+    private void commitSnapshot(String key, DataOutputStream out) throws IOException {
+        out.close();
+        File snapshotFile = getSnapshotFile(key);
+        if (!getTempFile(key).renameTo(snapshotFile)) {
+            throw new IOException("Couldn't rename snapshot " + key);
+        }
+        trimToSize(snapshotFile);
+    }
+
+    /**
+     * Delete the least recently written snapshots until the rest fit in the max size. The
+     * snapshot that was just written is kept even if it doesn't fit on its own
+     */
+    private void trimToSize(File newestFile) {
+        File[] files = mDirectory.listFiles(SNAPSHOT_FILES);
+        if (files == null) return;
+
+        // Read the times once, they can change under the sort if a snapshot is rewritten
+        SnapshotFile[] snapshotFiles = new SnapshotFile[files.length];
+        long size = 0;
+        for (int i = 0; i < files.length; i++) {
+            snapshotFiles[i] = new SnapshotFile(files[i]);
+            size += snapshotFiles[i].length;
+        }
+        if (size <= mMaxSize) return;
+
+        Arrays.sort(snapshotFiles, OLDEST_FIRST);
+        for (SnapshotFile snapshotFile : snapshotFiles) {
+            if (size <= mMaxSize) break;
+            if (snapshotFile.file.equals(newestFile)) continue;
+
+            if (snapshotFile.file.delete()) {
+                if (D) Log.d(TAG, "Pruned snapshot " + snapshotFile.file.getName());
+                size -= snapshotFile.length;
+            }
+        }
+    }
+
+    private void abortSnapshot(String key, DataOutputStream out) {
+        closeQuietly(out);
+        getTempFile(key).delete();
+    }
+
+    private File getSnapshotFile(String key) {
+        return new File(mDirectory, getFileName(key) + SNAPSHOT_SUFFIX);
+    }
+
+    private File getTempFile(String key) {
+        return new File(mDirectory, getFileName(key) + TEMP_SUFFIX);
+    }
+
+    private static String getFileName(String key) {
+        try {
+            return URLEncoder.encode(key, CHARSET);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(CHARSET + " is not supported");
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static class SnapshotFile {
+        final File file;
+        final long lastModified;
+        final long length;
+
+        SnapshotFile(File file) {
+            this.file = file;
+            lastModified = file.lastModified();
+            length = file.length();
+        }
+    }
+}
@@ -4,12 +4,15 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import android.util.Log;
 
+import com.sburba.tvdbapi.util.SnapshotUtil;
 import com.sburba.tvdbapi.xml.XmlException;
 import com.sburba.tvdbapi.xml.XmlUtil;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 
 /**
@@ -117,6 +120,19 @@ public class Actor extends TvdbItem implements Parcelable {
         dest.writeInt(sortOrder);
     }
 
+    public static Actor readSnapshot(DataInput in) throws IOException {
+        return new Actor(in.readInt(), SnapshotUtil.readString(in), SnapshotUtil.readString(in),
+                         SnapshotUtil.readString(in), in.readInt());
+    }
+
+    public void writeSnapshot(DataOutput out) throws IOException {
+        out.writeInt(id);
+        SnapshotUtil.writeString(out, image);
+        SnapshotUtil.writeString(out, name);
+        SnapshotUtil.writeString(out, role);
+        out.writeInt(sortOrder);
+    }
+
     @Override
     public String getImageUrl() {
         return image;
@@ -5,12 +5,15 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import android.util.Log;
 
+import com.sburba.tvdbapi.util.SnapshotUtil;
 import com.sburba.tvdbapi.xml.XmlException;
 import com.sburba.tvdbapi.xml.XmlUtil;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 
 /**
@@ -222,6 +225,43 @@ public class Banner implements Parcelable {
         out.writeInt(seasonNumber);
     }
 
+    public static Banner readSnapshot(DataInput in) throws IOException {
+        int id = in.readInt();
+        String bannerPath = SnapshotUtil.readString(in);
+        String thumbnailPath = SnapshotUtil.readString(in);
+        String vignettePath = SnapshotUtil.readString(in);
+        float rating = in.readFloat();
+        int ratingCount = in.readInt();
+        boolean hasSeriesName = in.readBoolean();
+        int lightAccentColor = in.readInt();
+        int darkAccentColor = in.readInt();
+        int neutralMidtoneColor = in.readInt();
+        String type = SnapshotUtil.readString(in);
+        String type2 = SnapshotUtil.readString(in);
+        String language = SnapshotUtil.readString(in);
+        int seasonNumber = in.readInt();
+        return new Banner(id, bannerPath, thumbnailPath, vignettePath, rating, ratingCount,
+                          hasSeriesName, lightAccentColor, darkAccentColor, neutralMidtoneColor,
+                          type, type2, language, seasonNumber);
+    }
+
+    public void writeSnapshot(DataOutput out) throws IOException {
+        out.writeInt(id);
+        SnapshotUtil.writeString(out, bannerPath);
+        SnapshotUtil.writeString(out, thumbnailPath);
+        SnapshotUtil.writeString(out, vignettePath);
+        out.writeFloat(rating);
+        out.writeInt(ratingCount);
+        out.writeBoolean(hasSeriesName);
+        out.writeInt(lightAccentColor);
+        out.writeInt(darkAccentColor);
+        out.writeInt(neutralMidtoneColor);
+        SnapshotUtil.writeString(out, type);
+        SnapshotUtil.writeString(out, type2);
+        SnapshotUtil.writeString(out, language);
+        out.writeInt(seasonNumber);
+    }
+
     public static class Builder {
         private int id = TvdbItem.NOT_PRESENT;
         private String bannerPath = null;
@@ -328,8 +368,9 @@ public class Banner implements Parcelable {
             if (values.length != 3) {
                 return TvdbItem.NOT_PRESENT;
             } else {
-                return Color.rgb(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
-                                 Integer.parseInt(values[2]));
+                // Same as Color.rgb(), which isn't implemented when parsing off the device
+                return 0xff000000 | (Integer.parseInt(values[0]) << 16) |
+                       (Integer.parseInt(values[1]) << 8) | Integer.parseInt(values[2]);
             }
         }
     }
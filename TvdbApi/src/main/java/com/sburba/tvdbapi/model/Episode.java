@@ -4,12 +4,15 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import android.util.Log;
 
+import com.sburba.tvdbapi.util.SnapshotUtil;
 import com.sburba.tvdbapi.xml.XmlException;
 import com.sburba.tvdbapi.xml.XmlUtil;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.util.Date;
 
@@ -96,7 +99,7 @@ public class Episode extends TvdbItem implements Parcelable {
     private static final String TAG_SEASON_ID = "seasonid";
     private static final String TAG_SERIES_ID = "seriesid";
     private static final String DELIMITER = "|";
-    private static final String DATE_FORMAT = "yyyy-MM-dd";
+    private static final String DATE_FORMAT = XmlUtil.DATE_FORMAT_ISO;
 
     public static Episode fromXml(XmlPullParser parser) throws XmlPullParserException, IOException,
                                                                XmlException {
@@ -298,6 +301,67 @@ public class Episode extends TvdbItem implements Parcelable {
         out.writeInt(seriesId);
     }
 
+    public static Episode readSnapshot(DataInput in) throws IOException {
+        int id = in.readInt();
+        int dvdChapter = in.readInt();
+        int dvdDiskId = in.readInt();
+        int dvdEpisodeNumber = in.readInt();
+        int dvdSeason = in.readInt();
+        String[] directors = SnapshotUtil.readStringArray(in);
+        String name = SnapshotUtil.readString(in);
+        int number = in.readInt();
+        Date firstAired = SnapshotUtil.readDate(in);
+        String[] guestStars = SnapshotUtil.readStringArray(in);
+        String imdbId = SnapshotUtil.readString(in);
+        String language = SnapshotUtil.readString(in);
+        String overview = SnapshotUtil.readString(in);
+        String productionCode = SnapshotUtil.readString(in);
+        float rating = in.readFloat();
+        int seasonNumber = in.readInt();
+        String[] writers = SnapshotUtil.readStringArray(in);
+        int absoluteNumber = in.readInt();
+        int airsAfterSeason = in.readInt();
+        int airsBeforeEpisode = in.readInt();
+        int airsBeforeSeason = in.readInt();
+        String filename = SnapshotUtil.readString(in);
+        long lastUpdated = in.readLong();
+        int seasonId = in.readInt();
+        int seriesId = in.readInt();
+        return new Episode(id, dvdChapter, dvdDiskId, dvdEpisodeNumber, dvdSeason, directors,
+                           name, number, firstAired, guestStars, imdbId, language, overview,
+                           productionCode, rating, seasonNumber, writers, absoluteNumber,
+                           airsAfterSeason, airsBeforeEpisode, airsBeforeSeason, filename,
+                           lastUpdated, seasonId, seriesId);
+    }
+
+    public void writeSnapshot(DataOutput out) throws IOException {
+        out.writeInt(id);
+        out.writeInt(dvdChapter);
+        out.writeInt(dvdDiskId);
+        out.writeInt(dvdEpisodeNumber);
+        out.writeInt(dvdSeason);
+        SnapshotUtil.writeStringArray(out, directors);
+        SnapshotUtil.writeString(out, name);
+        out.writeInt(number);
+        SnapshotUtil.writeDate(out, firstAired);
+        SnapshotUtil.writeStringArray(out, guestStars);
+        SnapshotUtil.writeString(out, imdbId);
+        SnapshotUtil.writeString(out, language);
+        SnapshotUtil.writeString(out, overview);
+        SnapshotUtil.writeString(out, productionCode);
+        out.writeFloat(rating);
+        out.writeInt(seasonNumber);
+        SnapshotUtil.writeStringArray(out, writers);
+        out.writeInt(absoluteNumber);
+        out.writeInt(airsAfterSeason);
+        out.writeInt(airsBeforeEpisode);
+        out.writeInt(airsBeforeSeason);
+        SnapshotUtil.writeString(out, filename);
+        out.writeLong(lastUpdated);
+        out.writeInt(seasonId);
+        out.writeInt(seriesId);
+    }
+
     public static class Builder {
         private int id = NOT_PRESENT;
         private int dvdChapter = NOT_PRESENT;
@@ -4,16 +4,21 @@ package com.sburba.tvdbapi.model;
 import android.os.Parcel;
 import android.os.Parcelable;
 
+import com.sburba.tvdbapi.util.SnapshotUtil;
 import com.sburba.tvdbapi.xml.XmlException;
 import com.sburba.tvdbapi.xml.XmlUtil;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * TVDB Season metadata
@@ -89,6 +94,45 @@ public class Season extends TvdbItem implements Parcelable {
         dest.writeString(language);
     }
 
+    /**
+     * Read a season written by {@link #writeSnapshot}. Its banners are only stored by id, they are
+     * taken from the banners of the bundle so a season doesn't keep copies of them
+     *
+     * @param bannersById The banners of the series the season belongs to
+     */
+    public static Season readSnapshot(DataInput in, Map<Integer, Banner> bannersById)
+            throws IOException {
+        int seriesId = in.readInt();
+        int seasonNumber = in.readInt();
+        int seasonId = in.readInt();
+        int bannerCount = SnapshotUtil.readCount(in);
+        List<Banner> banners = new ArrayList<Banner>(bannerCount);
+        for (int i = 0; i < bannerCount; i++) {
+            Banner banner = bannersById.get(in.readInt());
+            if (banner != null) banners.add(banner);
+        }
+        int dvdSeason = in.readInt();
+        String language = SnapshotUtil.readString(in);
+        return new Season(seriesId, seasonNumber, seasonId,
+                          banners.toArray(new Banner[banners.size()]), dvdSeason, language);
+    }
+
+    /**
+     * Only the ids of the banners are written, they have to be written with the rest of the
+     * series banners and read back first
+     */
+    public void writeSnapshot(DataOutput out) throws IOException {
+        out.writeInt(seriesId);
+        out.writeInt(seasonNumber);
+        out.writeInt(seasonId);
+        out.writeInt(banners.length);
+        for (Banner banner : banners) {
+            out.writeInt(banner.id);
+        }
+        out.writeInt(dvdSeason);
+        SnapshotUtil.writeString(out, language);
+    }
+
     @SuppressWarnings("unused")
     public static final Parcelable.Creator<Season> CREATOR = new Parcelable.Creator<Season>() {
         public Season createFromParcel(Parcel in) {
@@ -136,6 +180,17 @@ public class Season extends TvdbItem implements Parcelable {
             return builder;
         }
 
+        /**
+         * Take the season fields from an already parsed episode of the season
+         */
+        public static Builder fromEpisode(Episode episode) {
+            return new Builder().setSeriesId(episode.seriesId)
+                                .setSeasonNumber(episode.seasonNumber)
+                                .setSeasonId(episode.seasonId)
+                                .setDvdSeason(episode.dvdSeason)
+                                .setLanguage(episode.language);
+        }
+
         public Builder setSeriesId(int seriesId) {
             this.seriesId = seriesId;
             return this;
@@ -4,12 +4,15 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import android.util.Log;
 
+import com.sburba.tvdbapi.util.SnapshotUtil;
 import com.sburba.tvdbapi.xml.XmlException;
 import com.sburba.tvdbapi.xml.XmlUtil;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -104,7 +107,7 @@ public class Series extends TvdbItem implements Parcelable {
     private static final String TAG_POSTER = "poster";
     private static final String TAG_ZAP2IT_ID = "zap2it_id";
     private static final String DELIMITER = "|";
-    private static final String DATE_FORMAT = "yyyy-MM-dd";
+    private static final String DATE_FORMAT = XmlUtil.DATE_FORMAT_ISO;
 
     public static Series fromXml(XmlPullParser parser)
             throws XmlPullParserException, IOException, XmlException {
@@ -295,6 +298,66 @@ public class Series extends TvdbItem implements Parcelable {
         out.writeString(zap2itId);
     }
 
+    public static Series readSnapshot(DataInput in) throws IOException {
+        int id = in.readInt();
+        String[] actors = SnapshotUtil.readStringArray(in);
+        String airsDayOfWeek = SnapshotUtil.readString(in);
+        String airsTime = SnapshotUtil.readString(in);
+        String contentRating = SnapshotUtil.readString(in);
+        Date firstAired = SnapshotUtil.readDate(in);
+        String[] genres = SnapshotUtil.readStringArray(in);
+        String imdbId = SnapshotUtil.readString(in);
+        String language = SnapshotUtil.readString(in);
+        String network = SnapshotUtil.readString(in);
+        int networkId = in.readInt();
+        String overview = SnapshotUtil.readString(in);
+        float rating = in.readFloat();
+        int ratingCount = in.readInt();
+        int runtime = in.readInt();
+        int tvComId = in.readInt();
+        String name = SnapshotUtil.readString(in);
+        String status = SnapshotUtil.readString(in);
+        String added = SnapshotUtil.readString(in);
+        String addedBy = SnapshotUtil.readString(in);
+        String banner = SnapshotUtil.readString(in);
+        String fanart = SnapshotUtil.readString(in);
+        long lastUpdated = in.readLong();
+        String poster = SnapshotUtil.readString(in);
+        String zap2itId = SnapshotUtil.readString(in);
+        return new Series(id, actors, airsDayOfWeek, airsTime, contentRating, firstAired, genres,
+                          imdbId, language, network, networkId, overview, rating, ratingCount,
+                          runtime, tvComId, name, status, added, addedBy, banner, fanart,
+                          lastUpdated, poster, zap2itId);
+    }
+
+    public void writeSnapshot(DataOutput out) throws IOException {
+        out.writeInt(id);
+        SnapshotUtil.writeStringArray(out, actors);
+        SnapshotUtil.writeString(out, airsDayOfWeek);
+        SnapshotUtil.writeString(out, airsTime);
+        SnapshotUtil.writeString(out, contentRating);
+        SnapshotUtil.writeDate(out, firstAired);
+        SnapshotUtil.writeStringArray(out, genres);
+        SnapshotUtil.writeString(out, imdbId);
+        SnapshotUtil.writeString(out, language);
+        SnapshotUtil.writeString(out, network);
+        out.writeInt(networkId);
+        SnapshotUtil.writeString(out, overview);
+        out.writeFloat(rating);
+        out.writeInt(ratingCount);
+        out.writeInt(runtime);
+        out.writeInt(tvComId);
+        SnapshotUtil.writeString(out, name);
+        SnapshotUtil.writeString(out, status);
+        SnapshotUtil.writeString(out, added);
+        SnapshotUtil.writeString(out, addedBy);
+        SnapshotUtil.writeString(out, banner);
+        SnapshotUtil.writeString(out, fanart);
+        out.writeLong(lastUpdated);
+        SnapshotUtil.writeString(out, poster);
+        SnapshotUtil.writeString(out, zap2itId);
+    }
+
     public static class Builder {
         private int id = NOT_PRESENT;
         private String[] actors = null;
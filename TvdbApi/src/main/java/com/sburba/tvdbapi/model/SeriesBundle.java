@@ -0,0 +1,166 @@
+package com.sburba.tvdbapi.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything parsed from a series zip: the series record, the episodes, the seasons derived from
+ * them, the banners and the actors. The collections are unmodifiable since bundles are shared
+ * through the cache
+ */
+public class SeriesBundle {
+    public static final int ALL_SEASONS = -1;
+
+    /**
+     * The base series record, null if the zip didn't have one
+     */
+    public final Series series;
+    public final Collection<Episode> episodes;
+    public final Collection<Season> seasons;
+    public final Collection<Banner> banners;
+    public final Collection<Actor> actors;
+    /**
+     * When the bundle was downloaded in seconds since the epoch, comparable to the times in the
+     * TVDB updates feeds
+     */
+    public final long fetchTime;
+
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE_SIZE = 4;
+    private static final int STRING_OVERHEAD = OBJECT_OVERHEAD + 24;
+    private static final int DATE_SIZE = OBJECT_OVERHEAD + 8;
+    private static final int EPISODE_FIELDS_SIZE = 25 * REFERENCE_SIZE;
+    private static final int SEASON_FIELDS_SIZE = 6 * REFERENCE_SIZE;
+    private static final int BANNER_FIELDS_SIZE = 14 * REFERENCE_SIZE;
+    private static final int ACTOR_FIELDS_SIZE = 5 * REFERENCE_SIZE;
+    private static final int SERIES_FIELDS_SIZE = 30 * REFERENCE_SIZE;
+
+    private final int mEstimatedSize;
+
+    public SeriesBundle(Series series, Collection<Episode> episodes, Collection<Season> seasons,
+                        Collection<Banner> banners, Collection<Actor> actors) {
+        this(series, episodes, seasons, banners, actors, System.currentTimeMillis() / 1000);
+    }
+
+    public SeriesBundle(Series series, Collection<Episode> episodes, Collection<Season> seasons,
+                        Collection<Banner> banners, Collection<Actor> actors, long fetchTime) {
+        this.series = series;
+        this.episodes = Collections.unmodifiableCollection(episodes);
+        this.seasons = Collections.unmodifiableCollection(seasons);
+        this.banners = Collections.unmodifiableCollection(banners);
+        this.actors = Collections.unmodifiableCollection(actors);
+        this.fetchTime = fetchTime;
+        mEstimatedSize = estimateSize();
+    }
+
+    private SeriesBundle(SeriesBundle seriesBundle, long fetchTime) {
+        series = seriesBundle.series;
+        episodes = seriesBundle.episodes;
+        seasons = seriesBundle.seasons;
+        banners = seriesBundle.banners;
+        actors = seriesBundle.actors;
+        this.fetchTime = fetchTime;
+        mEstimatedSize = seriesBundle.mEstimatedSize;
+    }
+
+    /**
+     * The same bundle with another fetch time, for when the server confirms that a bundle is
+     * still current
+     *
+     * @param fetchTime The new fetch time in seconds since the epoch
+     */
+    public SeriesBundle withFetchTime(long fetchTime) {
+        return new SeriesBundle(this, fetchTime);
+    }
+
+    /**
+     * Get the episodes for a season
+     *
+     * @param seasonNumber The season number or {@link #ALL_SEASONS}
+     */
+    public Collection<Episode> getEpisodes(int seasonNumber) {
+        if (seasonNumber == ALL_SEASONS) return new ArrayList<Episode>(episodes);
+
+        List<Episode> seasonEpisodes = new ArrayList<Episode>();
+        for (Episode episode : episodes) {
+            if (episode.seasonNumber == seasonNumber) seasonEpisodes.add(episode);
+        }
+        return seasonEpisodes;
+    }
+
+    /**
+     * Get the banners for a season
+     *
+     * @param seasonNumber The season number or {@link #ALL_SEASONS}
+     */
+    public Collection<Banner> getBanners(int seasonNumber) {
+        if (seasonNumber == ALL_SEASONS) return new ArrayList<Banner>(banners);
+
+        List<Banner> seasonBanners = new ArrayList<Banner>();
+        for (Banner banner : banners) {
+            if (banner.seasonNumber == seasonNumber) seasonBanners.add(banner);
+        }
+        return seasonBanners;
+    }
+
+    /**
+     * Rough estimate of the number of bytes retained by this bundle, used to budget the cache
+     */
+    public int getEstimatedSize() {
+        return mEstimatedSize;
+    }
+
+    private int estimateSize() {
+        int size = OBJECT_OVERHEAD;
+        if (series != null) {
+            size += OBJECT_OVERHEAD + SERIES_FIELDS_SIZE + DATE_SIZE;
+            size += sizeOf(series.actors) + sizeOf(series.genres);
+            size += sizeOf(series.airsDayOfWeek) + sizeOf(series.airsTime) +
+                    sizeOf(series.contentRating) + sizeOf(series.imdbId) +
+                    sizeOf(series.language) + sizeOf(series.network) + sizeOf(series.overview) +
+                    sizeOf(series.name) + sizeOf(series.status) + sizeOf(series.added) +
+                    sizeOf(series.addedBy) + sizeOf(series.banner) + sizeOf(series.fanart) +
+                    sizeOf(series.poster) + sizeOf(series.zap2itId);
+        }
+        for (Episode episode : episodes) {
+            size += OBJECT_OVERHEAD + EPISODE_FIELDS_SIZE + DATE_SIZE;
+            size += sizeOf(episode.directors) + sizeOf(episode.guestStars) +
+                    sizeOf(episode.writers);
+            size += sizeOf(episode.name) + sizeOf(episode.imdbId) + sizeOf(episode.language) +
+                    sizeOf(episode.overview) + sizeOf(episode.productionCode) +
+                    sizeOf(episode.filename);
+        }
+        for (Season season : seasons) {
+            // Season banners are shared with the banner list, only count the array
+            size += OBJECT_OVERHEAD + SEASON_FIELDS_SIZE + sizeOf(season.language);
+            size += OBJECT_OVERHEAD + season.banners.length * REFERENCE_SIZE;
+        }
+        for (Banner banner : banners) {
+            size += OBJECT_OVERHEAD + BANNER_FIELDS_SIZE;
+            size += sizeOf(banner.bannerPath) + sizeOf(banner.thumbnailPath) +
+                    sizeOf(banner.vignettePath) + sizeOf(banner.type) + sizeOf(banner.type2) +
+                    sizeOf(banner.language);
+        }
+        for (Actor actor : actors) {
+            size += OBJECT_OVERHEAD + ACTOR_FIELDS_SIZE;
+            size += sizeOf(actor.image) + sizeOf(actor.name) + sizeOf(actor.role);
+        }
+        return size;
+    }
+
+    private static int sizeOf(String string) {
+        return (string == null) ? 0 : STRING_OVERHEAD + string.length() * 2;
+    }
+
+    private static int sizeOf(String[] strings) {
+        if (strings == null) return 0;
+
+        int size = OBJECT_OVERHEAD + strings.length * REFERENCE_SIZE;
+        for (String string : strings) {
+            size += sizeOf(string);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,18 @@
+package com.sburba.tvdbapi.model;
+
+/**
+ * An entry from a TVDB updates feed: the newest change to a series or any of its episodes or
+ * banners within the feed's period
+ */
+public class SeriesUpdate {
+    public final int seriesId;
+    /**
+     * Time of the newest change in seconds since the epoch, the same as the lastupdated fields
+     */
+    public final long time;
+
+    public SeriesUpdate(int seriesId, long time) {
+        this.seriesId = seriesId;
+        this.time = time;
+    }
+}
@@ -2,24 +2,31 @@ package com.sburba.tvdbapi.parser;
 
 import com.sburba.tvdbapi.model.Actor;
 import com.sburba.tvdbapi.xml.XmlException;
-import com.sburba.tvdbapi.xml.XmlObjectListParser;
 import com.sburba.tvdbapi.xml.XmlUtil;
+import com.sburba.tvdbapi.xml.ZippedXmlObjectListParser;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipInputStream;
 
-public class ActorListParser implements XmlObjectListParser<Actor> {
+public class ActorListParser implements ZippedXmlObjectListParser<Actor> {
 
     @Override
     public Collection<Actor> parseListFromXmlString(String xml) throws XmlException {
         try {
-            return readActorList(XmlUtil.getXmlPullParser(xml));
+            XmlPullParser parser = XmlUtil.getXmlPullParser(xml);
+            try {
+                return readActorList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
         } catch (IOException e) {
             throw new XmlException("Error reading XML String", e);
         } catch (XmlPullParserException e) {
@@ -27,6 +34,40 @@ public class ActorListParser implements XmlObjectListParser<Actor> {
         }
     }
 
+    @Override
+    public Collection<Actor> parseListFromZip(ZipInputStream zipStream, String charset)
+            throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(zipStream, "actors.xml", charset);
+            try {
+                return readActorList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading zip", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
+    @Override
+    public Collection<Actor> parseListFromXmlStream(InputStream inputStream, String charset)
+            throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(inputStream, charset);
+            try {
+                return readActorList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML stream", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
     @Override
     public Collection<Actor> parseListFromXmlStrings(Map<String, String> xmlStrings)
             throws XmlException {
@@ -49,4 +90,17 @@ public class ActorListParser implements XmlObjectListParser<Actor> {
         }
         return actorList;
     }
+
+    /**
+     * Actor parsers have no options, so they are all equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o != null && getClass() == o.getClass());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
 }
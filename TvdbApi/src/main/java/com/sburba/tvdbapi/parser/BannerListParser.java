@@ -1,20 +1,22 @@
 package com.sburba.tvdbapi.parser;
 
 import com.sburba.tvdbapi.model.Banner;
+import com.sburba.tvdbapi.xml.StreamingXmlObjectListParser;
 import com.sburba.tvdbapi.xml.XmlException;
-import com.sburba.tvdbapi.xml.XmlObjectListParser;
 import com.sburba.tvdbapi.xml.XmlUtil;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipInputStream;
 
-public class BannerListParser implements XmlObjectListParser<Banner> {
+public class BannerListParser implements StreamingXmlObjectListParser<Banner> {
 
     public static final int ALL_SEASONS = -1;
     private int mSeasonNumber;
@@ -36,7 +38,12 @@ public class BannerListParser implements XmlObjectListParser<Banner> {
     @Override
     public Collection<Banner> parseListFromXmlString(String xml) throws XmlException {
         try {
-            return readBannerList(XmlUtil.getXmlPullParser(xml));
+            XmlPullParser parser = XmlUtil.getXmlPullParser(xml);
+            try {
+                return readBannerList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
         } catch (IOException e) {
             throw new XmlException("Error reading XML String", e);
         } catch (XmlPullParserException e) {
@@ -44,6 +51,57 @@ public class BannerListParser implements XmlObjectListParser<Banner> {
         }
     }
 
+    @Override
+    public Collection<Banner> parseListFromZip(ZipInputStream zipStream, String charset)
+            throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(zipStream, "banners.xml", charset);
+            try {
+                return readBannerList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading zip", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
+    @Override
+    public void parseListFromZip(ZipInputStream zipStream, String charset,
+                                 ItemCallback<Banner> callback) throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(zipStream, "banners.xml", charset);
+            try {
+                readBanners(parser, callback);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading zip", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
+    @Override
+    public Collection<Banner> parseListFromXmlStream(InputStream inputStream, String charset)
+            throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(inputStream, charset);
+            try {
+                return readBannerList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML stream", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
     @Override
     public Collection<Banner> parseListFromXmlStrings(Map<String, String> xmlStrings)
             throws XmlException {
@@ -53,18 +111,43 @@ public class BannerListParser implements XmlObjectListParser<Banner> {
     public Collection<Banner> readBannerList(XmlPullParser parser)
             throws IOException, XmlPullParserException, XmlException {
 
-        List<Banner> bannerList = new ArrayList<Banner>();
+        final List<Banner> bannerList = new ArrayList<Banner>();
+        readBanners(parser, new ItemCallback<Banner>() {
+            @Override
+            public void onItem(Banner banner) {
+                bannerList.add(banner);
+            }
+        });
+        return bannerList;
+    }
+
+    private void readBanners(XmlPullParser parser, ItemCallback<Banner> callback)
+            throws IOException, XmlPullParserException, XmlException {
         parser.require(XmlPullParser.START_TAG, null, "Banners");
         while (parser.next() != XmlPullParser.END_TAG) {
             if (parser.getEventType() != XmlPullParser.START_TAG) continue;
             if (parser.getName().equals("Banner")) {
                 Banner banner = Banner.fromXml(parser);
-                if (isValidBanner(banner)) bannerList.add(banner);
+                if (isValidBanner(banner)) callback.onItem(banner);
             } else {
                 XmlUtil.skip(parser);
             }
         }
-        return bannerList;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BannerListParser that = (BannerListParser) o;
+
+        return mSeasonNumber == that.mSeasonNumber;
+    }
+
+    @Override
+    public int hashCode() {
+        return mSeasonNumber;
     }
 
     private boolean isValidBanner(Banner banner) {
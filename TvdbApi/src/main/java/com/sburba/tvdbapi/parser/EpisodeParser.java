@@ -2,7 +2,7 @@ package com.sburba.tvdbapi.parser;
 
 import com.sburba.tvdbapi.model.Episode;
 import com.sburba.tvdbapi.xml.XmlException;
-import com.sburba.tvdbapi.xml.XmlObjectListParser;
+import com.sburba.tvdbapi.xml.StreamingXmlObjectListParser;
 import com.sburba.tvdbapi.xml.XmlObjectParser;
 import com.sburba.tvdbapi.xml.XmlUtil;
 
@@ -10,12 +10,15 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipInputStream;
 
-public class EpisodeParser implements XmlObjectListParser<Episode>, XmlObjectParser<Episode> {
+public class EpisodeParser
+        implements StreamingXmlObjectListParser<Episode>, XmlObjectParser<Episode> {
     public static final int ALL_SEASONS = -1;
 
     private final int mSeasonNumber;
@@ -39,7 +42,12 @@ public class EpisodeParser implements XmlObjectListParser<Episode>, XmlObjectPar
     @Override
     public Collection<Episode> parseListFromXmlString(String xml) throws XmlException {
         try {
-            return readEpisodeList(XmlUtil.getXmlPullParser(xml));
+            XmlPullParser parser = XmlUtil.getXmlPullParser(xml);
+            try {
+                return readEpisodeList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
         } catch (IOException e) {
             throw new XmlException("Error reading XML String", e);
         } catch (XmlPullParserException e) {
@@ -47,6 +55,57 @@ public class EpisodeParser implements XmlObjectListParser<Episode>, XmlObjectPar
         }
     }
 
+    @Override
+    public Collection<Episode> parseListFromZip(ZipInputStream zipStream, String charset)
+            throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(zipStream, allEpisodes, charset);
+            try {
+                return readEpisodeList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading zip", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
+    @Override
+    public void parseListFromZip(ZipInputStream zipStream, String charset,
+                                 ItemCallback<Episode> callback) throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(zipStream, allEpisodes, charset);
+            try {
+                readEpisodes(parser, callback);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading zip", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
+    @Override
+    public Collection<Episode> parseListFromXmlStream(InputStream inputStream, String charset)
+            throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(inputStream, charset);
+            try {
+                return readEpisodeList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML stream", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
     @Override
     public Collection<Episode> parseListFromXmlStrings(Map<String, String> xmlStrings)
             throws XmlException {
@@ -56,34 +115,88 @@ public class EpisodeParser implements XmlObjectListParser<Episode>, XmlObjectPar
     public Collection<Episode> readEpisodeList(XmlPullParser parser)
             throws IOException, XmlPullParserException, XmlException {
 
-        List<Episode> episodeList = new ArrayList<Episode>();
+        final List<Episode> episodeList = new ArrayList<Episode>();
+        readEpisodes(parser, new ItemCallback<Episode>() {
+            @Override
+            public void onItem(Episode episode) {
+                episodeList.add(episode);
+            }
+        });
+        return episodeList;
+    }
+
+    private void readEpisodes(XmlPullParser parser, ItemCallback<Episode> callback)
+            throws IOException, XmlPullParserException, XmlException {
         parser.require(XmlPullParser.START_TAG, null, "Data");
         while (parser.next() != XmlPullParser.END_TAG) {
             if (parser.getEventType() != XmlPullParser.START_TAG) continue;
             if (parser.getName().equals("Episode")) {
                 Episode episode = Episode.fromXml(parser);
-                if (isValidEpisode(episode)) episodeList.add(episode);
+                if (isValidEpisode(episode)) callback.onItem(episode);
             } else {
                 XmlUtil.skip(parser);
             }
         }
-        return episodeList;
     }
 
     private boolean isValidEpisode(Episode episode) {
         return episode != null && (episode.seasonNumber == mSeasonNumber || mSeasonNumber == -1);
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        EpisodeParser that = (EpisodeParser) o;
+
+        return mSeasonNumber == that.mSeasonNumber && allEpisodes.equals(that.allEpisodes);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mSeasonNumber;
+        result = 31 * result + allEpisodes.hashCode();
+        return result;
+    }
+
+    @Override
+    public Episode parseXmlStream(InputStream inputStream, String charset) throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(inputStream, charset);
+            try {
+                return readEpisode(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML stream", e);
+        }
+    }
+
     @Override
     public Episode parseXmlString(String xmlString) throws XmlException {
         try {
             XmlPullParser parser = XmlUtil.getXmlPullParser(xmlString);
-            parser.require(XmlPullParser.START_TAG, null, "Episode");
-            return Episode.fromXml(parser);
+            try {
+                return readEpisode(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
         } catch (XmlPullParserException e) {
             throw new XmlException("Error parsing XML", e);
         } catch (IOException e) {
             throw new XmlException("Error reading XML String", e);
         }
     }
+
+    private static Episode readEpisode(XmlPullParser parser)
+            throws XmlPullParserException, IOException, XmlException {
+        // The api wraps the episode in a Data tag
+        if (parser.getName().equals("Data")) parser.nextTag();
+        parser.require(XmlPullParser.START_TAG, null, "Episode");
+        return Episode.fromXml(parser);
+    }
 }
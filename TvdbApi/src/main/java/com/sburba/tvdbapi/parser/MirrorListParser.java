@@ -0,0 +1,109 @@
+package com.sburba.tvdbapi.parser;
+
+import com.sburba.tvdbapi.transport.Mirror;
+import com.sburba.tvdbapi.xml.XmlException;
+import com.sburba.tvdbapi.xml.XmlObjectListParser;
+import com.sburba.tvdbapi.xml.XmlUtil;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses the TVDB mirrors.xml
+ */
+public class MirrorListParser implements XmlObjectListParser<Mirror> {
+
+    @Override
+    public Collection<Mirror> parseListFromXmlString(String xml) throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(xml);
+            try {
+                return readMirrorList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML String", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
+    @Override
+    public Collection<Mirror> parseListFromXmlStream(InputStream inputStream, String charset)
+            throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(inputStream, charset);
+            try {
+                return readMirrorList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML stream", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
+    @Override
+    public Collection<Mirror> parseListFromXmlStrings(Map<String, String> xmlStrings)
+            throws XmlException {
+        return parseListFromXmlString(xmlStrings.get("mirrors.xml"));
+    }
+
+    public Collection<Mirror> readMirrorList(XmlPullParser parser)
+            throws IOException, XmlPullParserException, XmlException {
+
+        List<Mirror> mirrorList = new ArrayList<Mirror>();
+        parser.require(XmlPullParser.START_TAG, null, "Mirrors");
+        while (parser.next() != XmlPullParser.END_TAG) {
+            if (parser.getEventType() != XmlPullParser.START_TAG) continue;
+            if (parser.getName().equals("Mirror")) {
+                Mirror mirror = readMirror(parser);
+                if (mirror != null) mirrorList.add(mirror);
+            } else {
+                XmlUtil.skip(parser);
+            }
+        }
+        return mirrorList;
+    }
+
+    private Mirror readMirror(XmlPullParser parser)
+            throws IOException, XmlPullParserException, XmlException {
+        String path = null;
+        int typeMask = 0;
+        while (parser.nextTag() != XmlPullParser.END_TAG) {
+            String tag = parser.getName();
+            if (tag.equals("mirrorpath")) {
+                path = XmlUtil.readText(parser, tag);
+            } else if (tag.equals("typemask")) {
+                typeMask = XmlUtil.readInt(parser, tag, 0);
+            } else {
+                XmlUtil.skip(parser);
+            }
+        }
+        return (path == null || path.length() == 0 || typeMask == 0) ?
+                null : new Mirror(path, typeMask);
+    }
+
+    /**
+     * Mirror parsers have no options, so they are all equal
+     */
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o != null && getClass() == o.getClass());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
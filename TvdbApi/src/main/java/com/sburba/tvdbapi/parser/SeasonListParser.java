@@ -4,15 +4,17 @@ import android.util.Log;
 
 import com.sburba.tvdbapi.TvdbApi;
 import com.sburba.tvdbapi.model.Banner;
+import com.sburba.tvdbapi.model.Episode;
 import com.sburba.tvdbapi.model.Season;
 import com.sburba.tvdbapi.xml.XmlException;
-import com.sburba.tvdbapi.xml.XmlObjectListParser;
 import com.sburba.tvdbapi.xml.XmlUtil;
+import com.sburba.tvdbapi.xml.ZippedXmlObjectListParser;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -20,13 +22,18 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * This class is kind've a clusterfuck because there's not really any season xml data, so this class
  * constructs that data by looking at all of the episodes, and then fills in the banners by looking
  * at Banners.xml
  */
-public class SeasonListParser implements XmlObjectListParser<Season> {
+public class SeasonListParser implements ZippedXmlObjectListParser<Season> {
+
+    private static final String TAG = "SeasonListParser";
+    private static final boolean D = false;
 
     //TODO: Pay attention to show order
     private final TvdbApi.SHOW_ORDER mShowOrder;
@@ -46,7 +53,12 @@ public class SeasonListParser implements XmlObjectListParser<Season> {
     @Override
     public Collection<Season> parseListFromXmlString(String xml) throws XmlException {
         try {
-            return getBuiltSeasons(readSeasonList(XmlUtil.getXmlPullParser(xml)));
+            XmlPullParser parser = XmlUtil.getXmlPullParser(xml);
+            try {
+                return getBuiltSeasons(readSeasonList(parser));
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
         } catch (IOException e) {
             throw new XmlException("Error reading XML String", e);
         } catch (XmlPullParserException e) {
@@ -54,14 +66,42 @@ public class SeasonListParser implements XmlObjectListParser<Season> {
         }
     }
 
+    @Override
+    public Collection<Season> parseListFromXmlStream(InputStream inputStream, String charset)
+            throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(inputStream, charset);
+            try {
+                return getBuiltSeasons(readSeasonList(parser));
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML stream", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
     @Override
     public Collection<Season> parseListFromXmlStrings(Map<String, String> xmlStrings)
             throws XmlException {
         try {
-            Collection<Season.Builder> seasonBuilders =
-                    readSeasonList(XmlUtil.getXmlPullParser(xmlStrings.get(allEpisodes)));
-            Collection<Banner> banners =
-                    readBannerList(XmlUtil.getXmlPullParser(xmlStrings.get("banners.xml")));
+            Collection<Season.Builder> seasonBuilders;
+            XmlPullParser parser = XmlUtil.getXmlPullParser(xmlStrings.get(allEpisodes));
+            try {
+                seasonBuilders = readSeasonList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+            // Borrows the parser that was just released
+            Collection<Banner> banners;
+            parser = XmlUtil.getXmlPullParser(xmlStrings.get("banners.xml"));
+            try {
+                banners = readBannerList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
             return getBuiltSeasonsWithBanners(seasonBuilders, banners);
         } catch (IOException e) {
             throw new XmlException("Error reading XML String", e);
@@ -70,6 +110,56 @@ public class SeasonListParser implements XmlObjectListParser<Season> {
         }
     }
 
+    @Override
+    public Collection<Season> parseListFromZip(ZipInputStream zipStream, String charset)
+            throws XmlException {
+        Collection<Season.Builder> seasonBuilders = null;
+        Collection<Banner> banners = new ArrayList<Banner>();
+        try {
+            ZipEntry entry;
+            while ((entry = zipStream.getNextEntry()) != null) {
+                boolean isEpisodes = entry.getName().equals(allEpisodes);
+                if (!isEpisodes && !entry.getName().equals("banners.xml")) continue;
+
+                XmlPullParser parser = XmlUtil.getXmlPullParser(zipStream, charset);
+                try {
+                    if (isEpisodes) {
+                        seasonBuilders = readSeasonList(parser);
+                    } else {
+                        banners = readBannerList(parser);
+                    }
+                } finally {
+                    XmlUtil.releaseXmlPullParser(parser);
+                }
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading zip", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+        if (seasonBuilders == null) throw new XmlException("Zip does not contain " + allEpisodes);
+        return getBuiltSeasonsWithBanners(seasonBuilders, banners);
+    }
+
+    /**
+     * Derive the seasons from episodes that were already parsed instead of parsing the episode
+     * XML again
+     *
+     * @param banners All of the series banners, the season banners are picked out of them
+     */
+    static Collection<Season> buildSeasons(Collection<Episode> episodes,
+                                           Collection<Banner> banners) {
+        Set<Season.Builder> seasonBuilders = new TreeSet<Season.Builder>(SEASON_NUMBER_ORDER);
+        for (Episode episode : episodes) {
+            seasonBuilders.add(Season.Builder.fromEpisode(episode));
+        }
+        Set<Banner> seasonBanners = new TreeSet<Banner>(BANNER_SEASON_NUMBER_ORDER);
+        for (Banner banner : banners) {
+            if (banner.type.equals("season")) seasonBanners.add(banner);
+        }
+        return getBuiltSeasonsWithBanners(seasonBuilders, seasonBanners);
+    }
+
     private Collection<Season.Builder> readSeasonList(XmlPullParser parser)
             throws IOException, XmlPullParserException, XmlException {
         Set<Season.Builder> seasons = new TreeSet<Season.Builder>(SEASON_NUMBER_ORDER);
@@ -78,9 +168,7 @@ public class SeasonListParser implements XmlObjectListParser<Season> {
             if (parser.getEventType() != XmlPullParser.START_TAG) continue;
             if (parser.getName().equals("Episode")) {
                 boolean added = seasons.add(Season.Builder.fromEpisodeXml(parser));
-                if(added) {
-                    Log.d("SeasonListParser", "Added season");
-                }
+                if (D && added) Log.d(TAG, "Added season");
             } else {
                 XmlUtil.skip(parser);
             }
@@ -107,8 +195,8 @@ public class SeasonListParser implements XmlObjectListParser<Season> {
         return banners;
     }
 
-    private Collection<Season> getBuiltSeasonsWithBanners(Collection<Season.Builder> sortedSeasons,
-                                                          Collection<Banner> sortedBanners) {
+    private static Collection<Season> getBuiltSeasonsWithBanners(
+            Collection<Season.Builder> sortedSeasons, Collection<Banner> sortedBanners) {
         if (sortedSeasons.isEmpty() || sortedBanners.isEmpty()) {
             return getBuiltSeasons(sortedSeasons);
         }
@@ -134,7 +222,8 @@ public class SeasonListParser implements XmlObjectListParser<Season> {
      * @Return The first {@link Season.Builder} that has the given seasonNumber or null if none
      * exists
      */
-    private Season.Builder advanceToSeason(Iterator<Season.Builder> seasons, int seasonNumber) {
+    private static Season.Builder advanceToSeason(Iterator<Season.Builder> seasons,
+                                                  int seasonNumber) {
         while (seasons.hasNext()) {
             Season.Builder season = seasons.next();
             if (season.getSeasonNumber() == seasonNumber) return season;
@@ -142,7 +231,7 @@ public class SeasonListParser implements XmlObjectListParser<Season> {
         return null;
     }
 
-    private Collection<Season> getBuiltSeasons(Collection<Season.Builder> seasonBuilders) {
+    private static Collection<Season> getBuiltSeasons(Collection<Season.Builder> seasonBuilders) {
         Collection<Season> seasons = new ArrayList<Season>(seasonBuilders.size());
         for (Season.Builder builder : seasonBuilders) {
             seasons.add(builder.build());
@@ -150,6 +239,23 @@ public class SeasonListParser implements XmlObjectListParser<Season> {
         return seasons;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SeasonListParser that = (SeasonListParser) o;
+
+        return mShowOrder == that.mShowOrder && allEpisodes.equals(that.allEpisodes);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mShowOrder.hashCode();
+        result = 31 * result + allEpisodes.hashCode();
+        return result;
+    }
+
     private static final Comparator<Season.Builder> SEASON_NUMBER_ORDER =
             new Comparator<Season.Builder>() {
                 @Override
@@ -0,0 +1,175 @@
+package com.sburba.tvdbapi.parser;
+
+import com.sburba.tvdbapi.model.Actor;
+import com.sburba.tvdbapi.model.Banner;
+import com.sburba.tvdbapi.model.Episode;
+import com.sburba.tvdbapi.model.Season;
+import com.sburba.tvdbapi.model.Series;
+import com.sburba.tvdbapi.model.SeriesBundle;
+import com.sburba.tvdbapi.xml.XmlException;
+import com.sburba.tvdbapi.xml.XmlUtil;
+import com.sburba.tvdbapi.xml.ZippedXmlObjectListParser;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Parses every file in a series zip into a single {@link SeriesBundle}, reading each file once.
+ * The series record and the episodes come out of the same pass over the episode XML and the
+ * seasons are derived from the parsed episodes. The bundle is returned as the only element of the
+ * list so it can share requests with the other series zip parsers
+ */
+public class SeriesBundleParser implements ZippedXmlObjectListParser<SeriesBundle> {
+
+    private static final String BANNERS = "banners.xml";
+    private static final String ACTORS = "actors.xml";
+
+    private final String mLanguage;
+    private final String mAllEpisodes;
+
+    public SeriesBundleParser(String language) {
+        mLanguage = language;
+        mAllEpisodes = language + ".xml";
+    }
+
+    @Override
+    public Collection<SeriesBundle> parseListFromXmlString(String xml) throws XmlException {
+        throw new IllegalStateException("Can't parse a series bundle from a single xmlString");
+    }
+
+    @Override
+    public Collection<SeriesBundle> parseListFromXmlStream(InputStream inputStream, String charset)
+            throws XmlException {
+        throw new IllegalStateException("Can't parse a series bundle from a single XML stream");
+    }
+
+    @Override
+    public Collection<SeriesBundle> parseListFromXmlStrings(Map<String, String> xmlStrings)
+            throws XmlException {
+        String episodesXml = xmlStrings.get(mAllEpisodes);
+        if (episodesXml == null) throw new XmlException("Zip does not contain " + mAllEpisodes);
+
+        List<Episode> episodes = new ArrayList<Episode>();
+        Series series;
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(episodesXml);
+            try {
+                series = readSeriesAndEpisodes(parser, episodes);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML String", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+
+        Collection<Banner> banners = xmlStrings.containsKey(BANNERS)
+                                     ? new BannerListParser().parseListFromXmlStrings(xmlStrings)
+                                     : new ArrayList<Banner>();
+        Collection<Actor> actors = xmlStrings.containsKey(ACTORS)
+                                   ? new ActorListParser().parseListFromXmlStrings(xmlStrings)
+                                   : new ArrayList<Actor>();
+        return buildBundle(series, episodes, banners, actors);
+    }
+
+    /**
+     * Parses each file as it is inflated
+     */
+    @Override
+    public Collection<SeriesBundle> parseListFromZip(ZipInputStream zipStream, String charset)
+            throws XmlException {
+        List<Episode> episodes = null;
+        Series series = null;
+        Collection<Banner> banners = new ArrayList<Banner>();
+        Collection<Actor> actors = new ArrayList<Actor>();
+        try {
+            ZipEntry entry;
+            while ((entry = zipStream.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (!name.equals(mAllEpisodes) && !name.equals(BANNERS) && !name.equals(ACTORS)) {
+                    continue;
+                }
+
+                XmlPullParser parser = XmlUtil.getXmlPullParser(zipStream, charset);
+                try {
+                    if (name.equals(mAllEpisodes)) {
+                        episodes = new ArrayList<Episode>();
+                        series = readSeriesAndEpisodes(parser, episodes);
+                    } else if (name.equals(BANNERS)) {
+                        banners = new BannerListParser().readBannerList(parser);
+                    } else {
+                        actors = new ActorListParser().readActorList(parser);
+                    }
+                } finally {
+                    XmlUtil.releaseXmlPullParser(parser);
+                }
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading zip", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+        if (episodes == null) throw new XmlException("Zip does not contain " + mAllEpisodes);
+
+        return buildBundle(series, episodes, banners, actors);
+    }
+
+    /**
+     * Read the series record and every episode from the episode XML in one pass
+     *
+     * @param episodes List the episodes are added to
+     * @return The series record, or null if the XML doesn't have one
+     */
+    private static Series readSeriesAndEpisodes(XmlPullParser parser, List<Episode> episodes)
+            throws IOException, XmlPullParserException, XmlException {
+        Series series = null;
+        parser.require(XmlPullParser.START_TAG, null, "Data");
+        while (parser.next() != XmlPullParser.END_TAG) {
+            if (parser.getEventType() != XmlPullParser.START_TAG) continue;
+            String tag = parser.getName();
+            if (tag.equals("Episode")) {
+                Episode episode = Episode.fromXml(parser);
+                if (episode != null) episodes.add(episode);
+            } else if (tag.equals("Series")) {
+                series = Series.fromXml(parser);
+            } else {
+                XmlUtil.skip(parser);
+            }
+        }
+        return series;
+    }
+
+    private static Collection<SeriesBundle> buildBundle(Series series, Collection<Episode> episodes,
+                                                        Collection<Banner> banners,
+                                                        Collection<Actor> actors) {
+        Collection<Season> seasons = SeasonListParser.buildSeasons(episodes, banners);
+        return Collections.singletonList(
+                new SeriesBundle(series, episodes, seasons, banners, actors));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SeriesBundleParser that = (SeriesBundleParser) o;
+
+        return mLanguage.equals(that.mLanguage);
+    }
+
+    @Override
+    public int hashCode() {
+        return mLanguage.hashCode();
+    }
+}
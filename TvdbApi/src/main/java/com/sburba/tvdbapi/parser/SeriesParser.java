@@ -10,6 +10,7 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -20,7 +21,12 @@ public class SeriesParser implements XmlObjectListParser<Series>, XmlObjectParse
     @Override
     public Collection<Series> parseListFromXmlString(String xml) throws XmlException {
         try {
-            return readSeriesList(XmlUtil.getXmlPullParser(xml));
+            XmlPullParser parser = XmlUtil.getXmlPullParser(xml);
+            try {
+                return readSeriesList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
         } catch (IOException e) {
             throw new XmlException("Error reading XML String", e);
         } catch (XmlPullParserException e) {
@@ -28,6 +34,23 @@ public class SeriesParser implements XmlObjectListParser<Series>, XmlObjectParse
         }
     }
 
+    @Override
+    public Collection<Series> parseListFromXmlStream(InputStream inputStream, String charset)
+            throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(inputStream, charset);
+            try {
+                return readSeriesList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML stream", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
     @Override
     public Collection<Series> parseListFromXmlStrings(Map<String, String> xmlStrings)
             throws XmlException {
@@ -37,7 +60,12 @@ public class SeriesParser implements XmlObjectListParser<Series>, XmlObjectParse
     @Override
     public Series parseXmlString(String xmlString) throws XmlException {
         try {
-            return readSeries(XmlUtil.getXmlPullParser(xmlString));
+            XmlPullParser parser = XmlUtil.getXmlPullParser(xmlString);
+            try {
+                return readSeries(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
         } catch (XmlPullParserException e) {
             throw new XmlException("Error parsing XML");
         } catch (IOException e) {
@@ -45,6 +73,22 @@ public class SeriesParser implements XmlObjectListParser<Series>, XmlObjectParse
         }
     }
 
+    @Override
+    public Series parseXmlStream(InputStream inputStream, String charset) throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(inputStream, charset);
+            try {
+                return readSeries(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML stream", e);
+        }
+    }
+
     private Series readSeries(XmlPullParser parser)
             throws XmlPullParserException, IOException, XmlException {
         parser.require(XmlPullParser.START_TAG, null, "Data");
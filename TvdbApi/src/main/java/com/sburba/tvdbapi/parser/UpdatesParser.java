@@ -0,0 +1,141 @@
+package com.sburba.tvdbapi.parser;
+
+import com.sburba.tvdbapi.model.SeriesUpdate;
+import com.sburba.tvdbapi.model.TvdbItem;
+import com.sburba.tvdbapi.xml.XmlException;
+import com.sburba.tvdbapi.xml.XmlUtil;
+import com.sburba.tvdbapi.xml.ZippedXmlObjectListParser;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Parses an updates_day, updates_week or updates_month feed. Series, episode and banner changes
+ * are collapsed into one {@link SeriesUpdate} per series with the newest time
+ */
+public class UpdatesParser implements ZippedXmlObjectListParser<SeriesUpdate> {
+
+    private static final String TAG_SERIES = "Series";
+    private static final String TAG_EPISODE = "Episode";
+    private static final String TAG_BANNER = "Banner";
+    private static final String TAG_ID = "id";
+    private static final String TAG_TIME = "time";
+
+    @Override
+    public Collection<SeriesUpdate> parseListFromXmlString(String xml) throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(xml);
+            try {
+                return readUpdateList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML String", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
+    /**
+     * The updates zips only contain the single feed file
+     */
+    @Override
+    public Collection<SeriesUpdate> parseListFromZip(ZipInputStream zipStream, String charset)
+            throws XmlException {
+        try {
+            if (zipStream.getNextEntry() == null) throw new XmlException("Updates zip is empty");
+            XmlPullParser parser = XmlUtil.getXmlPullParser(zipStream, charset);
+            try {
+                return readUpdateList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading zip", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
+    @Override
+    public Collection<SeriesUpdate> parseListFromXmlStream(InputStream inputStream, String charset)
+            throws XmlException {
+        try {
+            XmlPullParser parser = XmlUtil.getXmlPullParser(inputStream, charset);
+            try {
+                return readUpdateList(parser);
+            } finally {
+                XmlUtil.releaseXmlPullParser(parser);
+            }
+        } catch (IOException e) {
+            throw new XmlException("Error reading XML stream", e);
+        } catch (XmlPullParserException e) {
+            throw new XmlException("Error parsing XML", e);
+        }
+    }
+
+    @Override
+    public Collection<SeriesUpdate> parseListFromXmlStrings(Map<String, String> xmlStrings)
+            throws XmlException {
+        if (xmlStrings.isEmpty()) throw new XmlException("Updates zip is empty");
+        return parseListFromXmlString(xmlStrings.values().iterator().next());
+    }
+
+    public Collection<SeriesUpdate> readUpdateList(XmlPullParser parser)
+            throws IOException, XmlPullParserException, XmlException {
+
+        Map<Integer, Long> updateTimes = new LinkedHashMap<Integer, Long>();
+        parser.require(XmlPullParser.START_TAG, null, "Data");
+        while (parser.next() != XmlPullParser.END_TAG) {
+            if (parser.getEventType() != XmlPullParser.START_TAG) continue;
+            String tag = parser.getName();
+            if (tag.equals(TAG_SERIES)) {
+                // Series entries identify the series with <id>, the others with <Series>
+                readUpdate(parser, TAG_SERIES, TAG_ID, updateTimes);
+            } else if (tag.equals(TAG_EPISODE)) {
+                readUpdate(parser, TAG_EPISODE, TAG_SERIES, updateTimes);
+            } else if (tag.equals(TAG_BANNER)) {
+                readUpdate(parser, TAG_BANNER, TAG_SERIES, updateTimes);
+            } else {
+                XmlUtil.skip(parser);
+            }
+        }
+
+        Collection<SeriesUpdate> updates = new ArrayList<SeriesUpdate>(updateTimes.size());
+        for (Map.Entry<Integer, Long> entry : updateTimes.entrySet()) {
+            updates.add(new SeriesUpdate(entry.getKey(), entry.getValue()));
+        }
+        return updates;
+    }
+
+    private static void readUpdate(XmlPullParser parser, String entryTag, String seriesIdTag,
+                                   Map<Integer, Long> updateTimes)
+            throws IOException, XmlPullParserException, XmlException {
+        int seriesId = TvdbItem.NOT_PRESENT;
+        long time = TvdbItem.NOT_PRESENT;
+        while (parser.nextTag() != XmlPullParser.END_TAG) {
+            String tag = parser.getName();
+            if (tag.equals(seriesIdTag)) {
+                seriesId = XmlUtil.readInt(parser, seriesIdTag, TvdbItem.NOT_PRESENT);
+            } else if (tag.equals(TAG_TIME)) {
+                time = XmlUtil.readLong(parser, TAG_TIME, TvdbItem.NOT_PRESENT);
+            } else {
+                XmlUtil.skip(parser);
+            }
+        }
+        parser.require(XmlPullParser.END_TAG, null, entryTag);
+
+        if (seriesId == TvdbItem.NOT_PRESENT) return;
+        Long previousTime = updateTimes.get(seriesId);
+        if (previousTime == null || previousTime < time) updateTimes.put(seriesId, time);
+    }
+}
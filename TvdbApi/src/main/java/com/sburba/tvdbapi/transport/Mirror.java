@@ -0,0 +1,34 @@
+package com.sburba.tvdbapi.transport;
+
+/**
+ * A host that serves some or all of the TVDB traffic, as listed in the TVDB mirrors.xml
+ */
+public class Mirror {
+    public static final int TYPE_XML = 1;
+    public static final int TYPE_BANNER = 2;
+    public static final int TYPE_ZIP = 4;
+    public static final int TYPE_ALL = TYPE_XML | TYPE_BANNER | TYPE_ZIP;
+
+    /**
+     * Scheme and host of the mirror without a trailing slash, for example "http://thetvdb.com"
+     */
+    public final String path;
+    /**
+     * Bit mask of the {@code TYPE_} constants the mirror serves
+     */
+    public final int typeMask;
+
+    public Mirror(String path, int typeMask) {
+        this.path = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        this.typeMask = typeMask;
+    }
+
+    public boolean serves(int type) {
+        return (typeMask & type) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,96 @@
+package com.sburba.tvdbapi.transport;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HttpStack;
+import com.android.volley.toolbox.HurlStack;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Map;
+
+/**
+ * A Volley {@link HttpStack} that sends TVDB requests to the mirror picked by a
+ * {@link MirrorSelector} and reports how each one went. When a mirror fails or answers with a
+ * server error the request is sent again to the next healthy mirror, until every mirror has been
+ * tried. Only then does Volley see the last error, and its retry policy decides whether to start
+ * over. Pass it to
+ * {@link com.android.volley.toolbox.Volley#newRequestQueue(android.content.Context, HttpStack)}
+ * so XML, zip and banner image requests on that queue are all routed
+ */
+public class MirrorHttpStack implements HttpStack {
+    private final MirrorSelector mSelector;
+    private final HttpStack mStack;
+    /**
+     * The mirror HurlStack's rewriter picked for the request running on this dispatcher thread
+     */
+    private final ThreadLocal<Mirror> mSelected = new ThreadLocal<Mirror>();
+
+    public MirrorHttpStack(final MirrorSelector selector) {
+        mSelector = selector;
+        mStack = new HurlStack(new HurlStack.UrlRewriter() {
+            @Override
+            public String rewriteUrl(String originalUrl) {
+                Mirror mirror = selector.select(originalUrl);
+                mSelected.set(mirror);
+                return selector.rewrite(originalUrl, mirror);
+            }
+        });
+    }
+
+    @Override
+    public HttpResponse performRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        int attempts = mSelector.size();
+        IOException lastError = null;
+        HttpResponse lastResponse = null;
+        for (int i = 0; i < attempts; i++) {
+            if (lastResponse != null) {
+                discard(lastResponse);
+                lastResponse = null;
+            }
+            mSelected.remove();
+            long start = System.currentTimeMillis();
+            HttpResponse response;
+            try {
+                response = mStack.performRequest(request, additionalHeaders);
+            } catch (IOException e) {
+                Mirror mirror = mSelected.get();
+                // Not routed, there is nowhere else to send it
+                if (mirror == null) throw e;
+                mSelector.reportFailure(mirror);
+                lastError = e;
+                continue;
+            }
+
+            Mirror mirror = mSelected.get();
+            if (mirror == null) return response;
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode < HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                mSelector.reportSuccess(mirror, System.currentTimeMillis() - start);
+                return response;
+            }
+            mSelector.reportFailure(mirror);
+            lastResponse = response;
+        }
+        if (lastResponse != null) return lastResponse;
+        throw lastError;
+    }
+
+    /**
+     * Close the body of a response that is passed over, so its connection is released
+     */
+    private static void discard(HttpResponse response) {
+        HttpEntity entity = response.getEntity();
+        if (entity == null) return;
+        try {
+            entity.getContent().close();
+        } catch (IOException ignored) {
+        } catch (IllegalStateException ignored) {
+            // No body
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.sburba.tvdbapi.transport;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Routes TVDB traffic to the fastest healthy {@link Mirror}. Every request to the TVDB origin is
+ * rewritten to the mirror serving its type (XML, banner or zip) with the lowest smoothed latency,
+ * where each recent error counts as a fixed latency penalty. A mirror that fails is skipped for a
+ * cool-down that doubles with each consecutive failure, so retries fail over to the next mirror
+ * instead of waiting on the same degraded host again. When every mirror is cooling down the one
+ * that has been cooling down longest is tried.
+ * <p/>
+ * Use it with {@link MirrorHttpStack} for a Volley RequestQueue or {@link MirrorTransport} for
+ * {@link com.sburba.tvdbapi.TvdbClient}, which report every result back. Safe to use from any
+ * thread
+ */
+public class MirrorSelector {
+    public static final String TVDB_ORIGIN = "http://thetvdb.com";
+
+    private static final double SMOOTHING = 0.3;
+    private static final long ERROR_PENALTY_MS = 5000;
+    private static final long BASE_COOL_DOWN_MS = 5000;
+    private static final long MAX_COOL_DOWN_MS = 5 * 60 * 1000;
+    private static final String BANNER_PATH = "/banners/";
+    private static final String ZIP_SUFFIX = ".zip";
+
+    private final String mOrigin;
+    private List<MirrorStats> mMirrors;
+
+    /**
+     * Route requests for {@link #TVDB_ORIGIN}
+     *
+     * @param mirrors The mirrors to choose from, see {@link #setMirrors}
+     */
+    public MirrorSelector(Collection<Mirror> mirrors) {
+        this(TVDB_ORIGIN, mirrors);
+    }
+
+    /**
+     * @param origin  Scheme and host of the URLs to route, other URLs are left alone
+     * @param mirrors The mirrors to choose from, see {@link #setMirrors}
+     */
+    public MirrorSelector(String origin, Collection<Mirror> mirrors) {
+        mOrigin = origin;
+        setMirrors(mirrors);
+    }
+
+    /**
+     * Replace the mirrors to choose from, for example with the ones listed by
+     * {@link com.sburba.tvdbapi.TvdbApi#getMirrors}. Measurements of mirrors that are kept are
+     * kept too
+     */
+    public synchronized void setMirrors(Collection<Mirror> mirrors) {
+        if (mirrors.isEmpty()) throw new IllegalArgumentException("No mirrors");
+        List<MirrorStats> stats = new ArrayList<MirrorStats>(mirrors.size());
+        for (Mirror mirror : mirrors) {
+            MirrorStats previous = find(mirror.path);
+            stats.add((previous == null) ? new MirrorStats(mirror) : previous.withMirror(mirror));
+        }
+        mMirrors = stats;
+    }
+
+    /**
+     * @return The mirror to send the URL to, or null if the URL isn't for the routed origin or no
+     * mirror serves its type
+     */
+    public synchronized Mirror select(String url) {
+        if (!url.startsWith(mOrigin)) return null;
+        int type = getType(url.substring(mOrigin.length()));
+        long now = System.currentTimeMillis();
+
+        MirrorStats best = null;
+        MirrorStats leastCooling = null;
+        for (MirrorStats stats : mMirrors) {
+            if (!stats.mirror.serves(type)) continue;
+            if (stats.coolDownUntil > now) {
+                if (leastCooling == null || stats.coolDownUntil < leastCooling.coolDownUntil) {
+                    leastCooling = stats;
+                }
+            } else if (best == null || stats.getCost() < best.getCost()) {
+                best = stats;
+            }
+        }
+        if (best == null) best = leastCooling;
+        return (best == null) ? null : best.mirror;
+    }
+
+    /**
+     * @return The URL rewritten to point at the mirror
+     */
+    public String rewrite(String url, Mirror mirror) {
+        return (mirror == null) ? url : mirror.path + url.substring(mOrigin.length());
+    }
+
+    public synchronized void reportSuccess(Mirror mirror, long latencyMs) {
+        MirrorStats stats = find(mirror.path);
+        if (stats == null) return;
+        stats.latencyMs = stats.measured ?
+                stats.latencyMs + SMOOTHING * (latencyMs - stats.latencyMs) : latencyMs;
+        stats.measured = true;
+        stats.errorRate -= SMOOTHING * stats.errorRate;
+        stats.consecutiveFailures = 0;
+        stats.coolDownUntil = 0;
+    }
+
+    public synchronized void reportFailure(Mirror mirror) {
+        MirrorStats stats = find(mirror.path);
+        if (stats == null) return;
+        stats.errorRate += SMOOTHING * (1 - stats.errorRate);
+        long coolDown = BASE_COOL_DOWN_MS << Math.min(stats.consecutiveFailures, 16);
+        stats.coolDownUntil = System.currentTimeMillis() + Math.min(coolDown, MAX_COOL_DOWN_MS);
+        stats.consecutiveFailures++;
+    }
+
+    /**
+     * @return The number of mirrors, the most attempts a request needs to try every one
+     */
+    public synchronized int size() {
+        return mMirrors.size();
+    }
+
+    private MirrorStats find(String path) {
+        if (mMirrors == null) return null;
+        for (MirrorStats stats : mMirrors) {
+            if (stats.mirror.path.equals(path)) return stats;
+        }
+        return null;
+    }
+
+    private static int getType(String path) {
+        if (path.startsWith(BANNER_PATH)) return Mirror.TYPE_BANNER;
+        int query = path.indexOf('?');
+        if (query != -1) path = path.substring(0, query);
+        return path.endsWith(ZIP_SUFFIX) ? Mirror.TYPE_ZIP : Mirror.TYPE_XML;
+    }
+
+    private static class MirrorStats {
+        final Mirror mirror;
+        /**
+         * Unmeasured mirrors look free so each one gets tried
+         */
+        boolean measured = false;
+        double latencyMs = 0;
+        double errorRate = 0;
+        int consecutiveFailures = 0;
+        long coolDownUntil = 0;
+
+        MirrorStats(Mirror mirror) {
+            this.mirror = mirror;
+        }
+
+        MirrorStats withMirror(Mirror mirror) {
+            MirrorStats stats = new MirrorStats(mirror);
+            stats.measured = measured;
+            stats.latencyMs = latencyMs;
+            stats.errorRate = errorRate;
+            stats.consecutiveFailures = consecutiveFailures;
+            stats.coolDownUntil = coolDownUntil;
+            return stats;
+        }
+
+        double getCost() {
+            return latencyMs + errorRate * ERROR_PENALTY_MS;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.sburba.tvdbapi.transport;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Map;
+
+/**
+ * A {@link Transport} that sends TVDB requests to the mirror picked by a {@link MirrorSelector},
+ * trying the next healthy mirror when one fails or answers with a server error
+ */
+public class MirrorTransport implements Transport {
+    private final MirrorSelector mSelector;
+    private final Transport mTransport;
+
+    /**
+     * @param selector  {@link MirrorSelector} to route with
+     * @param transport {@link Transport} to fetch the rewritten URLs with
+     */
+    public MirrorTransport(MirrorSelector selector, Transport transport) {
+        mSelector = selector;
+        mTransport = transport;
+    }
+
+    @Override
+    public TransportResponse fetch(String url, Map<String, String> headers) throws IOException {
+        int attempts = mSelector.size();
+        IOException lastError = null;
+        TransportResponse lastResponse = null;
+        for (int i = 0; i < attempts; i++) {
+            Mirror mirror = mSelector.select(url);
+            if (mirror == null) return mTransport.fetch(url, headers);
+
+            long start = System.currentTimeMillis();
+            try {
+                lastResponse = mTransport.fetch(mSelector.rewrite(url, mirror), headers);
+            } catch (IOException e) {
+                mSelector.reportFailure(mirror);
+                lastError = e;
+                continue;
+            }
+            if (lastResponse.statusCode < HttpURLConnection.HTTP_INTERNAL_ERROR) {
+                mSelector.reportSuccess(mirror, System.currentTimeMillis() - start);
+                return lastResponse;
+            }
+            mSelector.reportFailure(mirror);
+        }
+        if (lastResponse != null) return lastResponse;
+        throw lastError;
+    }
+}
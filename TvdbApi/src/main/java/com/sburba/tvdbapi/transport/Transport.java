@@ -0,0 +1,19 @@
+package com.sburba.tvdbapi.transport;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Fetches TVDB responses for {@link com.sburba.tvdbapi.TvdbClient}. Implementations block the
+ * calling thread until the whole response has arrived and must be safe to call from many threads
+ * at once, since the client does no queueing of its own
+ */
+public interface Transport {
+    /**
+     * @param url     URL to GET
+     * @param headers Extra request headers, may be empty
+     * @return The response, whatever its status code
+     * @throws IOException If no response could be read
+     */
+    public TransportResponse fetch(String url, Map<String, String> headers) throws IOException;
+}
@@ -0,0 +1,42 @@
+package com.sburba.tvdbapi.transport;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class TransportResponse {
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+
+    public final int statusCode;
+    public final Map<String, String> headers;
+    public final byte[] data;
+
+    public TransportResponse(int statusCode, Map<String, String> headers, byte[] data) {
+        this.statusCode = statusCode;
+        this.headers = (headers == null) ? Collections.<String, String>emptyMap() : headers;
+        this.data = data;
+    }
+
+    public String getHeader(String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) return header.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * @return The charset from the Content-Type header, or null if there is none. XML carries its
+     * own encoding in its declaration, so HTTP's ISO-8859-1 default is left to the caller
+     */
+    public String getCharset() {
+        String contentType = getHeader(HEADER_CONTENT_TYPE);
+        if (contentType == null) return null;
+
+        for (String param : contentType.split(";")) {
+            String[] pair = param.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("charset")) {
+                return pair[1].trim();
+            }
+        }
+        return null;
+    }
+}
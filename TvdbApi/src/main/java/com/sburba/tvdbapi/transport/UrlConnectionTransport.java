@@ -0,0 +1,86 @@
+package com.sburba.tvdbapi.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Transport} over {@link HttpURLConnection}. Each fetch simply blocks its own thread, and
+ * nothing is pooled or locked besides the connections HttpURLConnection keeps alive, so it scales
+ * with however many threads the caller brings. On a JVM that means the fetches can run on virtual
+ * threads, which park instead of holding a platform thread while waiting on the socket
+ */
+public class UrlConnectionTransport implements Transport {
+    public static final int DEFAULT_CONNECT_TIMEOUT_MS = 10000;
+    public static final int DEFAULT_READ_TIMEOUT_MS = 30000;
+
+    private final int mConnectTimeoutMs;
+    private final int mReadTimeoutMs;
+
+    public UrlConnectionTransport() {
+        this(DEFAULT_CONNECT_TIMEOUT_MS, DEFAULT_READ_TIMEOUT_MS);
+    }
+
+    /**
+     * @param connectTimeoutMs Maximum time to wait for a connection, 0 waits forever
+     * @param readTimeoutMs    Maximum time to wait for each read, 0 waits forever
+     */
+    public UrlConnectionTransport(int connectTimeoutMs, int readTimeoutMs) {
+        mConnectTimeoutMs = connectTimeoutMs;
+        mReadTimeoutMs = readTimeoutMs;
+    }
+
+    @Override
+    public TransportResponse fetch(String url, Map<String, String> headers) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setConnectTimeout(mConnectTimeoutMs);
+            connection.setReadTimeout(mReadTimeoutMs);
+            connection.setUseCaches(false);
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode == -1) throw new IOException("Invalid HTTP response from " + url);
+
+            Map<String, String> responseHeaders = new HashMap<String, String>();
+            for (Map.Entry<String, List<String>> header :
+                    connection.getHeaderFields().entrySet()) {
+                // The status line is reported under a null name
+                if (header.getKey() != null && !header.getValue().isEmpty()) {
+                    responseHeaders.put(header.getKey(), header.getValue().get(0));
+                }
+            }
+
+            InputStream body = (statusCode >= HttpURLConnection.HTTP_BAD_REQUEST) ?
+                    connection.getErrorStream() : connection.getInputStream();
+            return new TransportResponse(statusCode, responseHeaders, readFully(body));
+        } catch (IOException e) {
+            // Only drop the connection on failure, a fully read one goes back to the keep-alive
+            // pool
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        if (in == null) return new byte[0];
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, count);
+            }
+            return bytes.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
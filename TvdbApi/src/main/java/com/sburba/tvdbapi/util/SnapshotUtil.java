@@ -0,0 +1,89 @@
+package com.sburba.tvdbapi.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Helpers for writing model fields to snapshots. Unlike {@link DataOutput#writeUTF(String)}
+ * these allow nulls and strings of any length
+ */
+public class SnapshotUtil {
+
+    private static final String CHARSET = "UTF-8";
+    private static final int NULL_LENGTH = -1;
+    /**
+     * Far more than any list or string in a series has, anything larger means the snapshot is
+     * damaged and must not be allocated
+     */
+    private static final int MAX_COUNT = 1 << 16;
+    private static final int MAX_STRING_LENGTH = 1 << 20;
+
+    public static void writeString(DataOutput out, String string) throws IOException {
+        if (string == null) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            byte[] bytes = string.getBytes(CHARSET);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) return null;
+        checkLength(length, MAX_STRING_LENGTH);
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, CHARSET);
+    }
+
+    public static void writeStringArray(DataOutput out, String[] strings) throws IOException {
+        if (strings == null) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            out.writeInt(strings.length);
+            for (String string : strings) {
+                writeString(out, string);
+            }
+        }
+    }
+
+    public static String[] readStringArray(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) return null;
+        checkLength(length, MAX_COUNT);
+
+        String[] strings = new String[length];
+        for (int i = 0; i < length; i++) {
+            strings[i] = readString(in);
+        }
+        return strings;
+    }
+
+    /**
+     * Read the number of items that follow
+     *
+     * @throws IOException If the count can't be right, so the caller never sizes a list by it
+     */
+    public static int readCount(DataInput in) throws IOException {
+        int count = in.readInt();
+        checkLength(count, MAX_COUNT);
+        return count;
+    }
+
+    private static void checkLength(int length, int max) throws IOException {
+        if (length < 0 || length > max) throw new IOException("Bad length " + length);
+    }
+
+    public static void writeDate(DataOutput out, Date date) throws IOException {
+        out.writeLong(date != null ? date.getTime() : -1L);
+    }
+
+    public static Date readDate(DataInput in) throws IOException {
+        long time = in.readLong();
+        return time != -1L ? new Date(time) : null;
+    }
+}
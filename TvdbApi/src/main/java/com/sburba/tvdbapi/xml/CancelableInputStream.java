@@ -0,0 +1,44 @@
+package com.sburba.tvdbapi.xml;
+
+import com.android.volley.Request;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * Stops reading once its request is canceled. Volley only drops the result of a canceled request,
+ * so parsing through this stream makes the parser fail at its next read instead of inflating and
+ * parsing the rest of a response nobody will see
+ */
+class CancelableInputStream extends FilterInputStream {
+    private final Request<?> mRequest;
+
+    CancelableInputStream(InputStream in, Request<?> request) {
+        super(in);
+        mRequest = request;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkCanceled();
+        return super.read();
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) throws IOException {
+        checkCanceled();
+        return super.read(buffer, offset, count);
+    }
+
+    @Override
+    public long skip(long byteCount) throws IOException {
+        checkCanceled();
+        return super.skip(byteCount);
+    }
+
+    private void checkCanceled() throws IOException {
+        if (mRequest.isCanceled()) throw new InterruptedIOException("Request canceled");
+    }
+}
@@ -0,0 +1,22 @@
+package com.sburba.tvdbapi.xml;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Receives a list in chunks while it is still being parsed, so the first items can be shown
+ * before the last ones are read. Both methods are called on the main thread
+ */
+public interface ChunkListener<T> {
+    /**
+     * @param chunk The next items in document order
+     */
+    public void onChunk(List<T> chunk);
+
+    /**
+     * Called once after the last chunk
+     *
+     * @param items Every item that was delivered in chunks
+     */
+    public void onComplete(Collection<T> items);
+}
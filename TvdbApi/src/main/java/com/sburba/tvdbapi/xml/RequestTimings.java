@@ -0,0 +1,75 @@
+package com.sburba.tvdbapi.xml;
+
+/**
+ * How long each stage of a finished {@link XmlRequest} took, in milliseconds. A stage that didn't
+ * happen took 0
+ */
+public class RequestTimings {
+    private static final long NANOS_PER_MILLI = 1000 * 1000;
+
+    public final String url;
+    /**
+     * The class of the parser the parse times and item count are for, or null if nothing was
+     * parsed
+     */
+    public final Class<?> parserClass;
+    /**
+     * true if the response came from Volley's disk cache instead of the network
+     */
+    public final boolean fromCache;
+    public final boolean succeeded;
+    /**
+     * Time from adding the request to the queue until a dispatcher took it, including the cache
+     * lookup if the request went on to the network
+     */
+    public final long queueWaitMs;
+    /**
+     * Time spent on the network, including retries
+     */
+    public final long networkMs;
+    /**
+     * Time spent inflating a zipped response while parsing it
+     */
+    public final long unzipMs;
+    /**
+     * Time spent parsing, not counting {@link #unzipMs}
+     */
+    public final long parseMs;
+    /**
+     * Time from handing the result to the delivery thread until the listener returned
+     */
+    public final long deliveryMs;
+    /**
+     * Size of the response body as received, before inflating it
+     */
+    public final long responseBytes;
+    /**
+     * Number of items the parser produced, 1 for a single object
+     */
+    public final int itemCount;
+
+    RequestTimings(String url, Class<?> parserClass, boolean fromCache, boolean succeeded,
+                   long queueWaitNanos, long networkNanos, long unzipNanos, long parseNanos,
+                   long deliveryNanos, long responseBytes, int itemCount) {
+        this.url = url;
+        this.parserClass = parserClass;
+        this.fromCache = fromCache;
+        this.succeeded = succeeded;
+        this.queueWaitMs = queueWaitNanos / NANOS_PER_MILLI;
+        this.networkMs = networkNanos / NANOS_PER_MILLI;
+        this.unzipMs = unzipNanos / NANOS_PER_MILLI;
+        this.parseMs = parseNanos / NANOS_PER_MILLI;
+        this.deliveryMs = deliveryNanos / NANOS_PER_MILLI;
+        this.responseBytes = responseBytes;
+        this.itemCount = itemCount;
+    }
+
+    @Override
+    public String toString() {
+        String parser = (parserClass == null) ? "none" : parserClass.getSimpleName();
+        return url + " parser=" + parser + " cache=" + fromCache + " ok=" + succeeded +
+               " queue=" + queueWaitMs + "ms network=" + networkMs + "ms unzip=" + unzipMs +
+               "ms parse=" + parseMs + "ms delivery=" + deliveryMs + "ms bytes=" +
+               responseBytes + " items=" + itemCount;
+    }
+}
@@ -0,0 +1,124 @@
+package com.sburba.tvdbapi.xml;
+
+import android.support.v4.util.LruCache;
+
+import com.android.volley.NetworkResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the validators (ETag and Last-Modified) of the responses results were parsed from, so
+ * a request can be sent conditionally. The results themselves aren't kept here, a
+ * {@link RevalidationSource} finds them when a request is made. Validators are keyed by URL and
+ * parser, since different parsers produce different results from the same response
+ */
+public class RevalidationCache {
+
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+
+    private final LruCache<Key, Entry> mEntries;
+
+    /**
+     * @param maxEntries The maximum number of validators to keep
+     */
+    public RevalidationCache(int maxEntries) {
+        mEntries = new LruCache<Key, Entry>(maxEntries);
+    }
+
+    /**
+     * @return The entry for the url and parser, or null if there is none
+     */
+    public Entry get(String url, Object xmlParser) {
+        return mEntries.get(new Key(url, xmlParser));
+    }
+
+    /**
+     * Remember the validators of a response the parser succeeded on. Nothing is stored if the
+     * response has none
+     *
+     * @param receivedTime When the response arrived in seconds since the epoch, see
+     *                     {@link RevalidationSource#getResult}
+     */
+    public void put(String url, Object xmlParser, NetworkResponse response, long receivedTime) {
+        String etag = getHeader(response.headers, HEADER_ETAG);
+        String lastModified = getHeader(response.headers, HEADER_LAST_MODIFIED);
+        if (etag == null && lastModified == null) return;
+
+        mEntries.put(new Key(url, xmlParser), new Entry(etag, lastModified, receivedTime));
+    }
+
+    private static String getHeader(Map<String, String> headers, String name) {
+        if (headers == null) return null;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) return header.getValue();
+        }
+        return null;
+    }
+
+    public static class Entry {
+        public final String etag;
+        public final String lastModified;
+        /**
+         * When the response the validators came from arrived, in seconds since the epoch
+         */
+        public final long receivedTime;
+
+        Entry(String etag, String lastModified, long receivedTime) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.receivedTime = receivedTime;
+        }
+
+        /**
+         * @return The headers that make a request conditional on this entry
+         */
+        public Map<String, String> getConditionalHeaders() {
+            Map<String, String> headers = new HashMap<String, String>();
+            if (etag != null) headers.put(HEADER_IF_NONE_MATCH, etag);
+            if (lastModified != null) headers.put(HEADER_IF_MODIFIED_SINCE, lastModified);
+            return headers;
+        }
+
+        /**
+         * @return true if both entries were parsed from the same version of the response
+         */
+        public boolean isSameVersion(Entry entry) {
+            return equal(etag, entry.etag) && equal(lastModified, entry.lastModified);
+        }
+
+        private static boolean equal(String a, String b) {
+            return (a == null) ? b == null : a.equals(b);
+        }
+    }
+
+    private static class Key {
+        final String url;
+        final Object xmlParser;
+
+        Key(String url, Object xmlParser) {
+            this.url = url;
+            this.xmlParser = xmlParser;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key key = (Key) o;
+
+            return url.equals(key.url) && xmlParser.equals(key.xmlParser);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = url.hashCode();
+            result = 31 * result + xmlParser.hashCode();
+            return result;
+        }
+    }
+}
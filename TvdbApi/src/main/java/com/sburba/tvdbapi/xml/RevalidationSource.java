@@ -0,0 +1,22 @@
+package com.sburba.tvdbapi.xml;
+
+/**
+ * Supplies the parsed result a 304 Not Modified is answered with. {@link RevalidationCache} only
+ * keeps the validators of a response, the result itself stays wherever the caller already keeps
+ * it, see {@link XmlRequest#setRevalidationSource}
+ */
+public interface RevalidationSource {
+    /**
+     * Called from a network thread before a request is sent, the request is only made conditional
+     * if a result is returned
+     *
+     * @param url           URL of the request
+     * @param xmlParser     Parser the result has to come from
+     * @param validatedTime When the response the validators were taken from arrived, in seconds
+     *                      since the epoch. A result kept from before then may be from an older
+     *                      response and must not be returned
+     * @return The result the parser produced from that response, of the same type, or null if it
+     * isn't kept any more
+     */
+    public Object getResult(String url, Object xmlParser, long validatedTime);
+}
@@ -0,0 +1,431 @@
+package com.sburba.tvdbapi.xml;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Response;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.Response.Listener;
+import com.android.volley.VolleyError;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipInputStream;
+
+/**
+ * A request for a zipped XML file that is shared by several parsers. The zip is downloaded once,
+ * each distinct parser runs once over it, and the result is delivered to every listener that
+ * subscribed with that parser. {@link ZippedXmlObjectListParser}s stream the zip, other parsers
+ * get it unpacked into Strings. Subscribers added with {@link #addStreamingParser} get their items
+ * in chunks as they are parsed, and are parsed before everyone else.
+ * <p/>
+ * Parsers that are {@link Object#equals(Object) equal} share a single parse. Once the response
+ * starts parsing no more subscribers can be added, see {@link #addParser}. Subscribers can be
+ * canceled by tag, see {@link #cancelSubscriptions}
+ */
+public class SharedZippedXmlRequest
+        extends XmlRequest<List<SharedZippedXmlRequest.Delivery<?>>> {
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private final OnClosedListener mOnClosedListener;
+    private final List<Subscription<?>> mSubscriptions = new ArrayList<Subscription<?>>();
+    private boolean mClosed = false;
+    /**
+     * The results the request was made conditional on keyed by parser, if any
+     */
+    private volatile Map<XmlObjectListParser<?>, Object> mRevalidationResults;
+
+    /**
+     * Creates a new request.
+     *
+     * @param url              URL to fetch the zip from
+     * @param onClosedListener Listener notified when the request stops accepting subscribers, or
+     *                         null
+     */
+    public SharedZippedXmlRequest(String url, OnClosedListener onClosedListener) {
+        super(Method.GET, url, null, null, null);
+        mOnClosedListener = onClosedListener;
+    }
+
+    /**
+     * Subscribe to the result of this request
+     *
+     * @param xmlParser     Parser to run over the unpacked XML files
+     * @param listener      Listener to receive the parsed list
+     * @param errorListener Error listener, or null to ignore errors.
+     * @param priority      Priority the subscriber needs. A queued request can't be moved up the
+     *                      queue, so higher priority subscribers aren't accepted until the request
+     *                      is in flight
+     * @param tag           Tag to cancel the subscriber with, or null
+     * @return false if the request is already parsing, has been canceled or is still queued with a
+     * lower priority, in which case the subscriber will never be notified and a new request has to
+     * be made
+     */
+    public synchronized <T> boolean addParser(XmlObjectListParser<T> xmlParser,
+                                              Listener<Collection<T>> listener,
+                                              ErrorListener errorListener, Priority priority,
+                                              Object tag) {
+        return addSubscription(new Subscription<T>(xmlParser, listener, errorListener, tag),
+                               priority);
+    }
+
+    /**
+     * Subscribe to the result of this request in chunks, the same as a
+     * {@link StreamingXmlObjectListRequest}. Chunks are posted to the main thread, so the request
+     * must be added to a {@link com.android.volley.RequestQueue} that delivers on the main thread.
+     * If an equal parser was already run, or the result is reused, it arrives as a single chunk
+     *
+     * @param chunkSize Number of items in each chunk, the last chunk may be smaller
+     * @return false in the same cases as {@link #addParser}
+     */
+    public synchronized <T> boolean addStreamingParser(StreamingXmlObjectListParser<T> xmlParser,
+                                                       int chunkSize,
+                                                       ChunkListener<T> chunkListener,
+                                                       ErrorListener errorListener,
+                                                       Priority priority, Object tag) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be at least 1");
+        return addSubscription(new StreamingSubscription<T>(xmlParser, chunkSize, chunkListener,
+                                                            errorListener, tag), priority);
+    }
+
+    private boolean addSubscription(Subscription<?> subscription, Priority priority) {
+        if (mClosed || isCanceled()) return false;
+        if (priority.ordinal() > getPriority().ordinal() && !isInFlight()) return false;
+        mSubscriptions.add(subscription);
+        return true;
+    }
+
+    /**
+     * Stop notifying the subscribers that were added with the tag. Their parsers are skipped if
+     * the response hasn't been parsed yet. The request itself is left for the caller to cancel,
+     * which it should do if this returns true since nobody is left to see the result
+     *
+     * @return true if no subscribers are left, the request then stops accepting new ones
+     */
+    public boolean cancelSubscriptions(Object tag) {
+        boolean wasClosed;
+        synchronized (this) {
+            for (int i = mSubscriptions.size() - 1; i >= 0; i--) {
+                Subscription<?> subscription = mSubscriptions.get(i);
+                if (subscription.tag == tag) {
+                    subscription.canceled = true;
+                    mSubscriptions.remove(i);
+                }
+            }
+            if (!mSubscriptions.isEmpty()) return false;
+            wasClosed = mClosed;
+            mClosed = true;
+        }
+        if (!wasClosed && mOnClosedListener != null) mOnClosedListener.onClosed(this);
+        return true;
+    }
+
+    /**
+     * The request is only made conditional when the validators of every subscriber's parser are
+     * from the same response and the source still has each result. It then stops accepting
+     * subscribers, since a 304 has nothing to parse for them
+     */
+    @Override
+    public Map<String, String> getHeaders() throws AuthFailureError {
+        mRevalidationResults = null;
+        if (!shouldRevalidate()) return super.getHeaders();
+
+        Map<XmlObjectListParser<?>, RevalidationCache.Entry> entries =
+                new HashMap<XmlObjectListParser<?>, RevalidationCache.Entry>();
+        RevalidationCache.Entry version = null;
+        synchronized (this) {
+            for (Subscription<?> subscription : mSubscriptions) {
+                RevalidationCache.Entry entry =
+                        getRevalidationCache().get(getUrl(), subscription.xmlParser);
+                if (entry == null || (version != null && !entry.isSameVersion(version))) {
+                    return super.getHeaders();
+                }
+                version = entry;
+                entries.put(subscription.xmlParser, entry);
+            }
+        }
+        if (version == null || !canRevalidate(version)) return super.getHeaders();
+
+        // The source may read from disk, so subscribers aren't held up while it looks
+        Map<XmlObjectListParser<?>, Object> results = new HashMap<XmlObjectListParser<?>, Object>();
+        for (Map.Entry<XmlObjectListParser<?>, RevalidationCache.Entry> entry :
+                entries.entrySet()) {
+            Object result = getRevalidationResult(entry.getValue(), entry.getKey());
+            if (result == null) return super.getHeaders();
+            results.put(entry.getKey(), result);
+        }
+
+        boolean wasClosed;
+        synchronized (this) {
+            // Anyone who subscribed in the meantime needs a result as well
+            for (Subscription<?> subscription : mSubscriptions) {
+                if (!results.containsKey(subscription.xmlParser)) return super.getHeaders();
+            }
+            wasClosed = mClosed;
+            mClosed = true;
+        }
+        if (!wasClosed && mOnClosedListener != null) mOnClosedListener.onClosed(this);
+        mRevalidationResults = results;
+        return version.getConditionalHeaders();
+    }
+
+    @Override
+    protected Response<List<Delivery<?>>> parseNetworkResponse(NetworkResponse response) {
+        List<Subscription<?>> subscriptions = close();
+        List<Delivery<?>> deliveries = new ArrayList<Delivery<?>>(subscriptions.size());
+        Map<XmlObjectListParser<?>, Object> revalidationResults = mRevalidationResults;
+        if (response.notModified && revalidationResults != null) {
+            for (Subscription<?> subscription : subscriptions) {
+                Delivery<?> delivery =
+                        subscription.reuse(revalidationResults.get(subscription.xmlParser));
+                recordParse(subscription.xmlParser, 0, null, countItems(delivery.result));
+                deliveries.add(delivery);
+            }
+            return Response.success(deliveries, parseCacheHeaders(response));
+        }
+
+        Map<XmlObjectListParser<?>, Delivery<?>> parsed =
+                new HashMap<XmlObjectListParser<?>, Delivery<?>>();
+        for (Subscription<?> subscription : streamingFirst(subscriptions)) {
+            if (isCanceled()) break;
+            if (subscription.canceled) continue;
+            boolean parsedBefore = parsed.containsKey(subscription.xmlParser);
+            long start = System.nanoTime();
+            ZipInputStream zipStream;
+            try {
+                zipStream = getZipStream(response);
+            } catch (IOException e) {
+                return Response.error(new ParseError(e));
+            }
+            Delivery<?> delivery = subscription.parse(zipStream, getCharset(), parsed);
+            if (!parsedBefore) {
+                recordParse(subscription.xmlParser, System.nanoTime() - start, zipStream,
+                            countItems(delivery.result));
+            }
+            deliveries.add(delivery);
+        }
+        if (canSaveForRevalidation()) {
+            for (Map.Entry<XmlObjectListParser<?>, Delivery<?>> entry : parsed.entrySet()) {
+                Delivery<?> delivery = entry.getValue();
+                if (delivery.error != null) continue;
+                getRevalidationCache().put(getUrl(), entry.getKey(), response, getReceivedTime());
+            }
+        }
+        return Response.success(deliveries, parseCacheHeaders(response));
+    }
+
+    @Override
+    protected void deliverResponse(List<Delivery<?>> deliveries) {
+        for (Delivery<?> delivery : deliveries) {
+            delivery.deliver();
+        }
+    }
+
+    @Override
+    public void deliverError(VolleyError error) {
+        for (Subscription<?> subscription : close()) {
+            if (subscription.errorListener != null) {
+                subscription.errorListener.onErrorResponse(error);
+            }
+        }
+    }
+
+    /**
+     * Streaming subscribers are waiting to show their first items, the others only get their
+     * results once everything has been parsed
+     */
+    private static List<Subscription<?>> streamingFirst(List<Subscription<?>> subscriptions) {
+        List<Subscription<?>> ordered = new ArrayList<Subscription<?>>(subscriptions.size());
+        for (Subscription<?> subscription : subscriptions) {
+            if (subscription instanceof StreamingSubscription) ordered.add(subscription);
+        }
+        for (Subscription<?> subscription : subscriptions) {
+            if (!(subscription instanceof StreamingSubscription)) ordered.add(subscription);
+        }
+        return ordered;
+    }
+
+    private List<Subscription<?>> close() {
+        boolean wasClosed;
+        List<Subscription<?>> subscriptions;
+        synchronized (this) {
+            wasClosed = mClosed;
+            mClosed = true;
+            subscriptions = new ArrayList<Subscription<?>>(mSubscriptions);
+        }
+        if (!wasClosed && mOnClosedListener != null) mOnClosedListener.onClosed(this);
+        return subscriptions;
+    }
+
+    public interface OnClosedListener {
+        /**
+         * Called once when the request stops accepting subscribers. May be called from any thread
+         */
+        public void onClosed(SharedZippedXmlRequest request);
+    }
+
+    private static class Subscription<T> {
+        final XmlObjectListParser<T> xmlParser;
+        final Listener<Collection<T>> listener;
+        final ErrorListener errorListener;
+        final Object tag;
+        volatile boolean canceled = false;
+
+        Subscription(XmlObjectListParser<T> xmlParser, Listener<Collection<T>> listener,
+                     ErrorListener errorListener, Object tag) {
+            this.xmlParser = xmlParser;
+            this.listener = listener;
+            this.errorListener = errorListener;
+            this.tag = tag;
+        }
+
+        /**
+         * Deliver the result the request was revalidated with
+         */
+        @SuppressWarnings("unchecked")
+        Delivery<T> reuse(Object result) {
+            // The source returns results of an equal parser, so the result has the same type
+            return new Delivery<T>(this, (Collection<T>) result, null);
+        }
+
+        /**
+         * Parse the zip, or reuse the result of an equal parser that already ran
+         */
+        @SuppressWarnings("unchecked")
+        Delivery<T> parse(ZipInputStream zipStream, String charset,
+                          Map<XmlObjectListParser<?>, Delivery<?>> parsed) {
+            Delivery<?> previous = parsed.get(xmlParser);
+            if (previous != null) {
+                // Equal parsers produce the same type, so the cast is safe
+                Delivery<T> typedPrevious = (Delivery<T>) previous;
+                return new Delivery<T>(this, typedPrevious.result, typedPrevious.error);
+            }
+
+            Delivery<T> delivery;
+            try {
+                delivery = new Delivery<T>(this, XmlUtil.parseZip(xmlParser, zipStream, charset),
+                                           null);
+            } catch (IOException e) {
+                delivery = new Delivery<T>(this, null, new ParseError(e));
+            } catch (XmlException e) {
+                delivery = new Delivery<T>(this, null, new ParseError(e));
+            }
+            parsed.put(xmlParser, delivery);
+            return delivery;
+        }
+
+        void deliver(Collection<T> result) {
+            listener.onResponse(result);
+        }
+    }
+
+    private static class StreamingSubscription<T> extends Subscription<T> {
+        final StreamingXmlObjectListParser<T> streamingParser;
+        final int chunkSize;
+        final ChunkListener<T> chunkListener;
+        /**
+         * Set once chunks have been posted, a refreshed response isn't chunked again
+         */
+        volatile boolean chunked = false;
+
+        StreamingSubscription(StreamingXmlObjectListParser<T> xmlParser, int chunkSize,
+                              ChunkListener<T> chunkListener, ErrorListener errorListener,
+                              Object tag) {
+            super(xmlParser, null, errorListener, tag);
+            this.streamingParser = xmlParser;
+            this.chunkSize = chunkSize;
+            this.chunkListener = chunkListener;
+        }
+
+        @Override
+        Delivery<T> parse(ZipInputStream zipStream, String charset,
+                          Map<XmlObjectListParser<?>, Delivery<?>> parsed) {
+            if (parsed.containsKey(xmlParser)) return super.parse(zipStream, charset, parsed);
+
+            ChunkingCallback callback = new ChunkingCallback(!chunked);
+            chunked = true;
+            Delivery<T> delivery;
+            try {
+                streamingParser.parseListFromZip(zipStream, charset, callback);
+                callback.flush();
+                delivery = new Delivery<T>(this, callback.items, null);
+            } catch (XmlException e) {
+                delivery = new Delivery<T>(this, null, new ParseError(e));
+            }
+            parsed.put(xmlParser, delivery);
+            return delivery;
+        }
+
+        @Override
+        void deliver(Collection<T> result) {
+            // Nothing was chunked if the result came from an equal parser or was reused
+            if (!chunked) {
+                chunked = true;
+                chunkListener.onChunk(new ArrayList<T>(result));
+            }
+            chunkListener.onComplete(result);
+        }
+
+        private void postChunk(final List<T> chunk) {
+            sMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    if (!canceled) chunkListener.onChunk(chunk);
+                }
+            });
+        }
+
+        private class ChunkingCallback implements StreamingXmlObjectListParser.ItemCallback<T> {
+            private final boolean mPostChunks;
+            final List<T> items = new ArrayList<T>();
+            private List<T> mChunk = new ArrayList<T>(chunkSize);
+
+            ChunkingCallback(boolean postChunks) {
+                mPostChunks = postChunks;
+            }
+
+            @Override
+            public void onItem(T item) {
+                items.add(item);
+                if (!mPostChunks) return;
+                mChunk.add(item);
+                if (mChunk.size() == chunkSize) flush();
+            }
+
+            void flush() {
+                if (mChunk.isEmpty()) return;
+                postChunk(mChunk);
+                mChunk = new ArrayList<T>(chunkSize);
+            }
+        }
+    }
+
+    static class Delivery<T> {
+        final Subscription<T> subscription;
+        final Collection<T> result;
+        final VolleyError error;
+
+        Delivery(Subscription<T> subscription, Collection<T> result, VolleyError error) {
+            this.subscription = subscription;
+            this.result = result;
+            this.error = error;
+        }
+
+        void deliver() {
+            if (subscription.canceled) return;
+            if (error == null) {
+                subscription.deliver(result);
+            } else if (subscription.errorListener != null) {
+                subscription.errorListener.onErrorResponse(error);
+            }
+        }
+    }
+}
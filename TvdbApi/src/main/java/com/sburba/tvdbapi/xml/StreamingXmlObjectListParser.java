@@ -0,0 +1,20 @@
+package com.sburba.tvdbapi.xml;
+
+import java.util.zip.ZipInputStream;
+
+/**
+ * A {@link ZippedXmlObjectListParser} that can hand over each item as soon as it has been read,
+ * instead of only returning once the whole list is built
+ */
+public interface StreamingXmlObjectListParser<T> extends ZippedXmlObjectListParser<T> {
+    /**
+     * Like {@link #parseListFromZip(ZipInputStream, String)} but passes every item to the callback
+     * in document order as it is read
+     */
+    public void parseListFromZip(ZipInputStream zipStream, String charset,
+                                 ItemCallback<T> callback) throws XmlException;
+
+    public interface ItemCallback<T> {
+        public void onItem(T item);
+    }
+}
@@ -0,0 +1,121 @@
+package com.sburba.tvdbapi.xml;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Response;
+import com.android.volley.Response.ErrorListener;
+import com.android.volley.toolbox.HttpHeaderParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.ZipInputStream;
+
+/**
+ * A request for a zipped XML list that posts the items to a {@link ChunkListener} in chunks of a
+ * fixed size as they are parsed, followed by the whole list once parsing is done. An error can
+ * follow chunks that were already delivered.
+ * <p/>
+ * Chunks are posted to the main thread before the final response is, so the request must be
+ * added to a {@link com.android.volley.RequestQueue} that delivers on the main thread. If Volley
+ * delivers a cached response and then refreshes it, only the first parse is chunked and the
+ * refreshed list is only passed to {@link ChunkListener#onComplete}
+ */
+public class StreamingXmlObjectListRequest<T, S extends StreamingXmlObjectListParser<T>>
+        extends XmlRequest<Collection<T>> {
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private final S mXmlParser;
+    private final int mChunkSize;
+    private final ChunkListener<T> mChunkListener;
+    private volatile boolean mChunked = false;
+
+    /**
+     * @param xmlParser     Parser to read the items with
+     * @param url           URL to fetch the zip from
+     * @param chunkSize     Number of items in each chunk, the last chunk may be smaller
+     * @param chunkListener Listener to receive the chunks and the whole list
+     * @param errorListener Error listener, or null to ignore errors.
+     */
+    public StreamingXmlObjectListRequest(S xmlParser, String url, int chunkSize,
+                                         ChunkListener<T> chunkListener,
+                                         ErrorListener errorListener) {
+        super(Method.GET, url, null, getCompletionListener(chunkListener), errorListener);
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be at least 1");
+        mXmlParser = xmlParser;
+        mChunkSize = chunkSize;
+        mChunkListener = chunkListener;
+    }
+
+    private static <T> Response.Listener<Collection<T>> getCompletionListener(
+            final ChunkListener<T> chunkListener) {
+        return new Response.Listener<Collection<T>>() {
+            @Override
+            public void onResponse(Collection<T> items) {
+                chunkListener.onComplete(items);
+            }
+        };
+    }
+
+    @Override
+    protected Response<Collection<T>> parseNetworkResponse(NetworkResponse response) {
+        ChunkingCallback callback = new ChunkingCallback(!mChunked);
+        mChunked = true;
+        try {
+            long start = System.nanoTime();
+            ZipInputStream zipStream = getZipStream(response);
+            mXmlParser.parseListFromZip(zipStream, getCharset(), callback);
+            callback.flush();
+            recordParse(mXmlParser, System.nanoTime() - start, zipStream,
+                        callback.getItems().size());
+            return Response.success(callback.getItems(),
+                                    HttpHeaderParser.parseCacheHeaders(response));
+        } catch (IOException e) {
+            return Response.error(new ParseError(e));
+        } catch (XmlException e) {
+            return Response.error(new ParseError(e));
+        }
+    }
+
+    private void postChunk(final List<T> chunk) {
+        sMainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (!isCanceled()) mChunkListener.onChunk(chunk);
+            }
+        });
+    }
+
+    private class ChunkingCallback implements StreamingXmlObjectListParser.ItemCallback<T> {
+        private final boolean mPostChunks;
+        private final List<T> mItems = new ArrayList<T>();
+        private List<T> mChunk = new ArrayList<T>(mChunkSize);
+
+        ChunkingCallback(boolean postChunks) {
+            mPostChunks = postChunks;
+        }
+
+        @Override
+        public void onItem(T item) {
+            mItems.add(item);
+            if (!mPostChunks) return;
+            mChunk.add(item);
+            if (mChunk.size() == mChunkSize) flush();
+        }
+
+        void flush() {
+            if (mChunk.isEmpty()) return;
+            postChunk(mChunk);
+            mChunk = new ArrayList<T>(mChunkSize);
+        }
+
+        Collection<T> getItems() {
+            return mItems;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.sburba.tvdbapi.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Adds up the time spent inflating, so the time a parser spends reading a zip can be told apart
+ * from the time it spends parsing it. Entries skipped by {@link #getNextEntry} are inflated through
+ * {@link #read(byte[], int, int)} as well, so they are counted too
+ */
+class TimedZipInputStream extends ZipInputStream {
+    private long mReadNanos = 0;
+
+    TimedZipInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return super.read(buffer, offset, count);
+        } finally {
+            mReadNanos += System.nanoTime() - start;
+        }
+    }
+
+    long getReadNanos() {
+        return mReadNanos;
+    }
+}
@@ -0,0 +1,15 @@
+package com.sburba.tvdbapi.xml;
+
+/**
+ * Receives the stage timings of finished {@link XmlRequest}s, see
+ * {@link XmlRequest#setTimingObserver}
+ */
+public interface TimingObserver {
+    /**
+     * Called once for each parser that ran over the response after the request finished, or once
+     * with no parser if nothing was parsed. Canceled requests aren't reported. Called from the
+     * thread the request finished on, which is the main thread unless a refreshed response turned
+     * out to be unchanged, so it should return quickly
+     */
+    public void onRequestTimed(RequestTimings timings);
+}
@@ -1,11 +1,18 @@
 package com.sburba.tvdbapi.xml;
 
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Map;
 
 public interface XmlObjectListParser<T> {
     public Collection<T> parseListFromXmlString(String xml) throws XmlException;
 
+    /**
+     * Parse while decoding the stream, without building a String of the whole document first
+     */
+    public Collection<T> parseListFromXmlStream(InputStream inputStream, String charset)
+            throws XmlException;
+
     public Collection<T> parseListFromXmlStrings(Map<String, String> xmlStrings)
             throws XmlException;
 }
\ No newline at end of file
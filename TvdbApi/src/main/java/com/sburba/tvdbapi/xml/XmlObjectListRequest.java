@@ -6,7 +6,8 @@ import com.android.volley.Request;
 import com.android.volley.Response;
 import com.android.volley.toolbox.HttpHeaderParser;
 
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 
 /**
@@ -30,14 +31,32 @@ public class XmlObjectListRequest<T, S extends XmlObjectListParser<T>>
         mXmlParser = xmlParser;
     }
 
+    @Override
+    protected boolean acceptsGzip() {
+        return true;
+    }
+
+    @Override
+    protected Object getRevalidationParser() {
+        return mXmlParser;
+    }
+
     @Override
     protected Response<Collection<T>> parseNetworkResponse(NetworkResponse response) {
+        Collection<T> notModifiedResult = getNotModifiedResult(response);
+        if (notModifiedResult != null) {
+            return Response.success(notModifiedResult, parseCacheHeaders(response));
+        }
+
         try {
-            String xml =
-                    new String(response.data, HttpHeaderParser.parseCharset(response.headers));
-            Collection<T> resultList = mXmlParser.parseListFromXmlString(xml);
+            long start = System.nanoTime();
+            InputStream xmlStream = getBodyStream(response);
+            Collection<T> resultList = mXmlParser.parseListFromXmlStream(
+                    xmlStream, HttpHeaderParser.parseCharset(response.headers));
+            recordParse(mXmlParser, System.nanoTime() - start, null, resultList.size());
+            saveForRevalidation(response);
             return Response.success(resultList, HttpHeaderParser.parseCacheHeaders(response));
-        } catch (UnsupportedEncodingException e) {
+        } catch (IOException e) {
             return Response.error(new ParseError(e));
         } catch (XmlException e) {
             return Response.error(new ParseError(e));
@@ -1,5 +1,12 @@
 package com.sburba.tvdbapi.xml;
 
+import java.io.InputStream;
+
 public interface XmlObjectParser<T> {
     public T parseXmlString(String xmlString) throws XmlException;
+
+    /**
+     * Parse while decoding the stream, without building a String of the whole document first
+     */
+    public T parseXmlStream(InputStream inputStream, String charset) throws XmlException;
 }
\ No newline at end of file
@@ -7,7 +7,8 @@ import com.android.volley.Response.ErrorListener;
 import com.android.volley.Response.Listener;
 import com.android.volley.toolbox.HttpHeaderParser;
 
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * A request for retrieving a {@link T} XML response body at a given URL
@@ -29,21 +30,39 @@ public class XmlObjectRequest<T, S extends XmlObjectParser<T>> extends XmlReques
         mXmlParser = xmlParser;
     }
 
+    @Override
+    protected boolean acceptsGzip() {
+        return true;
+    }
+
+    @Override
+    protected Object getRevalidationParser() {
+        return mXmlParser;
+    }
+
     @Override
     protected Response<T> parseNetworkResponse(NetworkResponse response) {
+        T notModifiedResult = getNotModifiedResult(response);
+        if (notModifiedResult != null) {
+            return Response.success(notModifiedResult, parseCacheHeaders(response));
+        }
+
         try {
-            String xml =
-                    new String(response.data, HttpHeaderParser.parseCharset(response.headers));
-            return Response.success(parseXml(xml), HttpHeaderParser.parseCacheHeaders(response));
-        } catch (UnsupportedEncodingException e) {
+            long start = System.nanoTime();
+            InputStream xmlStream = getBodyStream(response);
+            T result = parseXml(xmlStream, HttpHeaderParser.parseCharset(response.headers));
+            recordParse(mXmlParser, System.nanoTime() - start, null, countItems(result));
+            saveForRevalidation(response);
+            return Response.success(result, HttpHeaderParser.parseCacheHeaders(response));
+        } catch (IOException e) {
             return Response.error(new ParseError(e));
         } catch (XmlException e) {
             return Response.error(new ParseError(e));
         }
     }
 
-    protected T parseXml(String xml) throws XmlException {
-        return mXmlParser.parseXmlString(xml);
+    protected T parseXml(InputStream xmlStream, String charset) throws XmlException {
+        return mXmlParser.parseXmlStream(xmlStream, charset);
     }
 }
 
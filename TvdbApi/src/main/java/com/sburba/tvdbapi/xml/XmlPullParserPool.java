@@ -0,0 +1,67 @@
+package com.sburba.tvdbapi.xml;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps a few idle parsers so a parse doesn't pay for a factory lookup and a new parser with fresh
+ * buffers. The factory is looked up once. The pool is shared by every thread and the lock is only
+ * held to take or return a parser, so it works as well for a few long lived dispatcher threads as
+ * for a short lived thread per fetch, which a per-thread pool would never get to reuse
+ */
+class XmlPullParserPool {
+    /**
+     * Enough for the network dispatchers parsing at once, the pool never keeps more than this
+     * many idle parsers and their buffers however many threads parse
+     */
+    private static final int MAX_IDLE = 8;
+
+    private static XmlPullParserFactory sFactory;
+
+    private static final List<XmlPullParser> sIdleParsers = new ArrayList<XmlPullParser>(MAX_IDLE);
+
+    /**
+     * @return An idle parser, or a new one if there is none. Its input has to be set before it is
+     * used, and it must only be used by one thread until it is released
+     */
+    static XmlPullParser borrow() throws XmlPullParserException {
+        synchronized (sIdleParsers) {
+            int last = sIdleParsers.size() - 1;
+            if (last >= 0) return sIdleParsers.remove(last);
+        }
+        return getFactory().newPullParser();
+    }
+
+    /**
+     * Keep the parser for the next {@link #borrow()}. Its input is cleared so the pool doesn't
+     * hold on to the stream or String it was reading
+     */
+    static void release(XmlPullParser parser) {
+        try {
+            parser.setInput((Reader) null);
+        } catch (XmlPullParserException e) {
+            // Can't be reset, let it go
+            return;
+        }
+        synchronized (sIdleParsers) {
+            if (sIdleParsers.size() < MAX_IDLE && !sIdleParsers.contains(parser)) {
+                sIdleParsers.add(parser);
+            }
+        }
+    }
+
+    private static synchronized XmlPullParserFactory getFactory()
+            throws XmlPullParserException {
+        if (sFactory == null) {
+            XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
+            factory.setNamespaceAware(false);
+            sFactory = factory;
+        }
+        return sFactory;
+    }
+}
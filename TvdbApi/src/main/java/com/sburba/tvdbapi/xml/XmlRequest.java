@@ -1,13 +1,26 @@
 package com.sburba.tvdbapi.xml;
 
+import com.android.volley.AuthFailureError;
+import com.android.volley.Cache;
 import com.android.volley.NetworkResponse;
 import com.android.volley.Request;
 import com.android.volley.Response;
 import com.android.volley.Response.ErrorListener;
 import com.android.volley.Response.Listener;
 import com.android.volley.VolleyLog;
+import com.android.volley.toolbox.HttpHeaderParser;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipInputStream;
 
 public abstract class XmlRequest<T> extends Request<T> {
 
@@ -16,8 +29,45 @@ public abstract class XmlRequest<T> extends Request<T> {
     private static final String PROTOCOL_CONTENT_TYPE =
             String.format("text/xml; charset=%s", PROTOCOL_CHARSET);
 
+    private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    private static final String ENCODING_GZIP = "gzip";
+
+    private static final String MARKER_ADDED = "add-to-queue";
+    private static final String MARKER_CACHE_TAKEN = "cache-queue-take";
+    private static final String MARKER_NETWORK_TAKEN = "network-queue-take";
+    private static final String MARKER_NETWORK_COMPLETE = "network-http-complete";
+    private static final String MARKER_RESPONSE_POSTED = "post-response";
+    private static final String MARKER_ERROR_POSTED = "post-error";
+
+    private static final int DEFAULT_REVALIDATION_CACHE_SIZE = 256;
+
+    private static volatile RevalidationCache sRevalidationCache =
+            new RevalidationCache(DEFAULT_REVALIDATION_CACHE_SIZE);
+
     private final Listener<T> mListener;
     private final String mRequestBody;
+    private Priority mPriority = Priority.NORMAL;
+    private RevalidationSource mRevalidationSource = null;
+    /**
+     * The result the request was made conditional on, if any
+     */
+    private volatile Object mRevalidationResult;
+    private volatile boolean mInFlight = false;
+    private volatile long mReceivedTime = 0;
+
+    private volatile TimingObserver mTimingObserver = null;
+    private volatile long mAddedNanos = 0;
+    private volatile long mTakenNanos = 0;
+    private volatile long mNetworkNanos = -1;
+    private volatile long mPostedNanos = 0;
+    private volatile boolean mFailed = false;
+    private volatile long mResponseBytes = 0;
+    /**
+     * Parser -> timing of its last parse, a refreshed response replaces the cached one's
+     */
+    private final Map<Object, ParseTiming> mParseTimings =
+            new LinkedHashMap<Object, ParseTiming>();
 
     public XmlRequest(int method, String url, String requestBody,
                       Listener<T> listener, ErrorListener errorListener) {
@@ -26,6 +76,285 @@ public abstract class XmlRequest<T> extends Request<T> {
         mRequestBody = requestBody;
     }
 
+    /**
+     * Set the priority the request is dispatched with, must be set before it is added to the queue
+     */
+    public void setPriority(Priority priority) {
+        mPriority = priority;
+    }
+
+    @Override
+    public Priority getPriority() {
+        return mPriority;
+    }
+
+    /**
+     * Report how long each stage of this request took once it finishes, must be set before it is
+     * added to the queue
+     *
+     * @param timingObserver The {@link TimingObserver} to report to, or null to not time the
+     *                       request
+     */
+    public void setTimingObserver(TimingObserver timingObserver) {
+        mTimingObserver = timingObserver;
+    }
+
+    /**
+     * @return true once a network dispatcher has taken the request off the queue, its priority
+     * no longer matters then
+     */
+    public boolean isInFlight() {
+        return mInFlight;
+    }
+
+    /**
+     * Volley marks every stage a request goes through, which is where the queue, network and
+     * delivery times come from
+     */
+    @Override
+    public void addMarker(String tag) {
+        super.addMarker(tag);
+        if (MARKER_NETWORK_TAKEN.equals(tag)) {
+            mInFlight = true;
+        } else if (MARKER_NETWORK_COMPLETE.equals(tag)) {
+            mReceivedTime = System.currentTimeMillis() / 1000;
+        }
+        if (mTimingObserver == null) return;
+
+        long now = System.nanoTime();
+        if (MARKER_ADDED.equals(tag)) {
+            mAddedNanos = now;
+        } else if (MARKER_CACHE_TAKEN.equals(tag) || MARKER_NETWORK_TAKEN.equals(tag)) {
+            mTakenNanos = now;
+        } else if (MARKER_NETWORK_COMPLETE.equals(tag)) {
+            mNetworkNanos = now - mTakenNanos;
+        } else if (MARKER_RESPONSE_POSTED.equals(tag)) {
+            mPostedNanos = now;
+            mFailed = false;
+        } else if (MARKER_ERROR_POSTED.equals(tag)) {
+            mPostedNanos = now;
+            mFailed = true;
+        }
+    }
+
+    /**
+     * Record how long a parser took over the response
+     *
+     * @param xmlParser  The parser that ran
+     * @param parseNanos Time the parse took, including reading the zip stream
+     * @param zipStream  The stream from {@link #getZipStream} the parser read, or null if the
+     *                   response isn't zipped
+     * @param itemCount  Number of items parsed
+     */
+    protected final void recordParse(Object xmlParser, long parseNanos, ZipInputStream zipStream,
+                                     int itemCount) {
+        if (mTimingObserver == null || xmlParser == null) return;
+
+        long unzipNanos = (zipStream instanceof TimedZipInputStream) ?
+                ((TimedZipInputStream) zipStream).getReadNanos() : 0;
+        synchronized (mParseTimings) {
+            mParseTimings.put(xmlParser, new ParseTiming(xmlParser.getClass(), unzipNanos,
+                                                         parseNanos - unzipNanos, itemCount));
+        }
+    }
+
+    protected static int countItems(Object result) {
+        if (result == null) return 0;
+        return (result instanceof Collection) ? ((Collection<?>) result).size() : 1;
+    }
+
+    @Override
+    protected void onFinish() {
+        super.onFinish();
+        TimingObserver timingObserver = mTimingObserver;
+        if (timingObserver == null || isCanceled()) return;
+
+        long now = System.nanoTime();
+        long queueWaitNanos = (mTakenNanos == 0) ? 0 : mTakenNanos - mAddedNanos;
+        long deliveryNanos = (mPostedNanos == 0) ? 0 : now - mPostedNanos;
+        boolean fromCache = mNetworkNanos < 0;
+        long networkNanos = fromCache ? 0 : mNetworkNanos;
+        List<ParseTiming> parseTimings;
+        synchronized (mParseTimings) {
+            parseTimings = new ArrayList<ParseTiming>(mParseTimings.values());
+        }
+        if (parseTimings.isEmpty()) parseTimings.add(new ParseTiming(null, 0, 0, 0));
+
+        for (ParseTiming parseTiming : parseTimings) {
+            timingObserver.onRequestTimed(new RequestTimings(
+                    getUrl(), parseTiming.parserClass, fromCache, !mFailed, queueWaitNanos,
+                    networkNanos, parseTiming.unzipNanos, parseTiming.parseNanos, deliveryNanos,
+                    mResponseBytes, parseTiming.itemCount));
+        }
+    }
+
+    /**
+     * Set the number of validators kept for revalidation, see {@link #setRevalidationSource}.
+     * Changing the size drops every validator already kept
+     */
+    public static void setRevalidationCacheSize(int maxEntries) {
+        sRevalidationCache = new RevalidationCache(maxEntries);
+    }
+
+    protected static RevalidationCache getRevalidationCache() {
+        return sRevalidationCache;
+    }
+
+    /**
+     * Keep the response's ETag and Last-Modified headers, and make later requests for the same URL
+     * conditional on them when the source still has the result parsed from that response. When
+     * the server answers 304 Not Modified that result is delivered without downloading or parsing
+     * anything. Must be set before the request is added to the queue
+     *
+     * @param revalidationSource Where the results are kept, or null to not revalidate
+     */
+    public void setRevalidationSource(RevalidationSource revalidationSource) {
+        mRevalidationSource = revalidationSource;
+    }
+
+    public boolean shouldRevalidate() {
+        return mRevalidationSource != null;
+    }
+
+    /**
+     * @return The result the source keeps for the parser, or null if there is none from the
+     * response the entry was taken from
+     */
+    protected final Object getRevalidationResult(RevalidationCache.Entry entry, Object xmlParser) {
+        RevalidationSource revalidationSource = mRevalidationSource;
+        if (revalidationSource == null) return null;
+        return revalidationSource.getResult(getUrl(), xmlParser, entry.receivedTime);
+    }
+
+    /**
+     * @return The parser that identifies the parsed result for revalidation, or null if this
+     * request can't be revalidated
+     */
+    protected Object getRevalidationParser() {
+        return null;
+    }
+
+    /**
+     * @return true to ask the server to gzip the response. Only worth it for plain XML, a zip
+     * doesn't get any smaller. A gzipped response is inflated by {@link #getBodyStream} whether or
+     * not it was asked for
+     */
+    protected boolean acceptsGzip() {
+        return false;
+    }
+
+    @Override
+    public Map<String, String> getHeaders() throws AuthFailureError {
+        Map<String, String> headers = getRevalidationHeaders();
+        if (!acceptsGzip()) return headers;
+
+        headers = new HashMap<String, String>(headers);
+        headers.put(HEADER_ACCEPT_ENCODING, ENCODING_GZIP);
+        return headers;
+    }
+
+    private Map<String, String> getRevalidationHeaders() throws AuthFailureError {
+        mRevalidationResult = null;
+        Object xmlParser = getRevalidationParser();
+        if (!shouldRevalidate() || xmlParser == null) return super.getHeaders();
+
+        RevalidationCache.Entry entry = sRevalidationCache.get(getUrl(), xmlParser);
+        if (entry == null || !canRevalidate(entry)) return super.getHeaders();
+
+        // Held until the response, so it can't be dropped from the source in the meantime
+        Object result = getRevalidationResult(entry, xmlParser);
+        if (result == null) return super.getHeaders();
+
+        mRevalidationResult = result;
+        return entry.getConditionalHeaders();
+    }
+
+    /**
+     * Volley sends the validators of its own cache entry instead of ours if it has one, in which
+     * case a 304 only means our result is current if both came from the same response
+     */
+    protected final boolean canRevalidate(RevalidationCache.Entry entry) {
+        Cache.Entry cacheEntry = getCacheEntry();
+        return cacheEntry == null || (entry.etag != null && entry.etag.equals(cacheEntry.etag));
+    }
+
+    /**
+     * @return The result kept from the last response if this response is a 304 for it, otherwise
+     * null and the response has to be parsed
+     */
+    @SuppressWarnings("unchecked")
+    protected final T getNotModifiedResult(NetworkResponse response) {
+        Object result = mRevalidationResult;
+        if (!response.notModified || result == null) return null;
+        recordParse(getRevalidationParser(), 0, null, countItems(result));
+        // The source returns results of an equal parser, so the result has type T
+        return (T) result;
+    }
+
+    /**
+     * Keep the validators of a response that parsed, for revalidating later requests
+     */
+    protected final void saveForRevalidation(NetworkResponse response) {
+        Object xmlParser = getRevalidationParser();
+        if (!canSaveForRevalidation() || xmlParser == null) return;
+        sRevalidationCache.put(getUrl(), xmlParser, response, mReceivedTime);
+    }
+
+    /**
+     * @return true if the request revalidates and the response came from the network. A
+     * response from Volley's cache arrived at an unknown time, so its validators aren't kept
+     */
+    protected final boolean canSaveForRevalidation() {
+        return shouldRevalidate() && mReceivedTime > 0;
+    }
+
+    /**
+     * @return When the response arrived from the network in seconds since the epoch, before it
+     * was parsed
+     */
+    protected final long getReceivedTime() {
+        return mReceivedTime;
+    }
+
+    /**
+     * Like {@link HttpHeaderParser#parseCacheHeaders} but returns null for a 304 without a body,
+     * which Volley's cache can't store
+     */
+    protected static Cache.Entry parseCacheHeaders(NetworkResponse response) {
+        return (response.data == null) ? null : HttpHeaderParser.parseCacheHeaders(response);
+    }
+
+    /**
+     * @return The response body as a stream that is inflated as it is read if the response is
+     * gzipped, and that fails with an {@link java.io.InterruptedIOException} once this request is
+     * canceled, so parsing it stops early instead of running to the end for a result that will be
+     * dropped
+     * @throws IOException If the response says it is gzipped but the gzip header is broken
+     */
+    protected final InputStream getBodyStream(NetworkResponse response) throws IOException {
+        mResponseBytes = response.data.length;
+        String contentEncoding = getHeader(response, HEADER_CONTENT_ENCODING);
+        InputStream bodyStream =
+                XmlUtil.decodeContent(new ByteArrayInputStream(response.data), contentEncoding);
+        return new CancelableInputStream(bodyStream, this);
+    }
+
+    /**
+     * @return The zipped response body as a zip stream, see {@link #getBodyStream}. Pass it to
+     * {@link #recordParse} to have the time spent inflating it reported separately
+     */
+    protected final ZipInputStream getZipStream(NetworkResponse response) throws IOException {
+        return new TimedZipInputStream(getBodyStream(response));
+    }
+
+    private static String getHeader(NetworkResponse response, String name) {
+        if (response.headers == null) return null;
+        for (Map.Entry<String, String> header : response.headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) return header.getValue();
+        }
+        return null;
+    }
+
     protected final String getCharset() {
         return PROTOCOL_CHARSET;
     }
@@ -53,4 +382,18 @@ public abstract class XmlRequest<T> extends Request<T> {
             return null;
         }
     }
+
+    private static class ParseTiming {
+        final Class<?> parserClass;
+        final long unzipNanos;
+        final long parseNanos;
+        final int itemCount;
+
+        ParseTiming(Class<?> parserClass, long unzipNanos, long parseNanos, int itemCount) {
+            this.parserClass = parserClass;
+            this.unzipNanos = unzipNanos;
+            this.parseNanos = parseNanos;
+            this.itemCount = itemCount;
+        }
+    }
 }
\ No newline at end of file
@@ -4,14 +4,23 @@ import android.util.Log;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
-import org.xmlpull.v1.XmlPullParserFactory;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 public class XmlUtil {
 
@@ -20,6 +29,17 @@ public class XmlUtil {
 
     public static final String NAMESPACE = null;
 
+    private static final String ENCODING_GZIP = "gzip";
+
+    /**
+     * The format TVDB sends dates in, {@link #readDate} parses it without a
+     * {@link SimpleDateFormat}
+     */
+    public static final String DATE_FORMAT_ISO = "yyyy-MM-dd";
+    private static final int MILLIS_PER_MINUTE = 60 * 1000;
+    private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+    private static final int FIRST_ISO_FAST_PATH_YEAR = 1901;
+
     /**
      * Reads an int from the next xml tag
      *
@@ -143,12 +163,17 @@ public class XmlUtil {
 
         parser.require(XmlPullParser.START_TAG, NAMESPACE, tagName);
         Date date = null;
-        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat, Locale.ENGLISH);
         if (parser.next() == XmlPullParser.TEXT) {
-            try {
-                date = simpleDateFormat.parse(parser.getText());
-            } catch (ParseException e) {
-                return null;
+            String text = parser.getText();
+            if (DATE_FORMAT_ISO.equals(dateFormat)) date = parseIsoDate(text);
+            if (date == null) {
+                SimpleDateFormat simpleDateFormat =
+                        new SimpleDateFormat(dateFormat, Locale.ENGLISH);
+                try {
+                    date = simpleDateFormat.parse(text);
+                } catch (ParseException e) {
+                    return null;
+                }
             }
             parser.next();
         }
@@ -156,6 +181,71 @@ public class XmlUtil {
         return date;
     }
 
+    /**
+     * Parse a yyyy-MM-dd date to local midnight, the same Date a {@link SimpleDateFormat} would
+     * give, without creating a formatter or a calendar. The text is read in place, Android's
+     * parser already holds it as a String so that doesn't copy anything either
+     *
+     * @return The date, or null if the text isn't exactly a valid yyyy-MM-dd date since 1901, its
+     * midnight is next to a daylight saving change or the zone was still on local mean time. Those
+     * are left to {@link SimpleDateFormat}, which is lenient about them
+     */
+    static Date parseIsoDate(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') return null;
+        int year = parseDigits(text, 0, 4);
+        int month = parseDigits(text, 5, 7);
+        int day = parseDigits(text, 8, 10);
+        // Earlier dates run into the Julian calendar and zone history that differs between
+        // implementations, nothing on TVDB aired that early
+        if (year < FIRST_ISO_FAST_PATH_YEAR || month < 1 || month > 12 || day < 1 ||
+                day > daysInMonth(year, month)) {
+            return null;
+        }
+
+        long localMillis = daysSinceEpoch(year, month, day) * MILLIS_PER_DAY;
+        TimeZone timeZone = TimeZone.getDefault();
+        int offset = timeZone.getOffset(localMillis - timeZone.getRawOffset());
+        long millis = localMillis - offset;
+        // The offset changes around midnight, or isn't in whole minutes as in local mean time,
+        // let the formatter sort it out
+        if (timeZone.getOffset(millis) != offset || offset % MILLIS_PER_MINUTE != 0) return null;
+        return new Date(millis);
+    }
+
+    /**
+     * @return The number in text from start up to end, or -1 if it isn't all digits
+     */
+    private static int parseDigits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            boolean leapYear = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leapYear ? 29 : 28;
+        }
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
+
+    /**
+     * Days from 1970-01-01 to the date in the proleptic Gregorian calendar
+     */
+    private static long daysSinceEpoch(int year, int month, int day) {
+        // Count years from March so the leap day is the last day of the year
+        if (month <= 2) year--;
+        int era = year / 400;
+        int yearOfEra = year - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
     /**
      * Skips the next tag and all of its children
      */
@@ -179,15 +269,123 @@ public class XmlUtil {
     }
 
     /**
-     * Get a default XmlPullParser
+     * Borrow a default XmlPullParser from the pool shared by all threads. Hand it back with
+     * {@link #releaseXmlPullParser} once parsing is done
      */
     public static XmlPullParser getXmlPullParser(String xml)
             throws XmlPullParserException, IOException {
-        XmlPullParserFactory xppFactory = XmlPullParserFactory.newInstance();
-        xppFactory.setNamespaceAware(false);
-        XmlPullParser parser = xppFactory.newPullParser();
-        parser.setInput(new StringReader(xml));
-        parser.nextTag();
+        XmlPullParser parser = XmlPullParserPool.borrow();
+        boolean started = false;
+        try {
+            parser.setInput(new StringReader(xml));
+            parser.nextTag();
+            started = true;
+        } finally {
+            if (!started) XmlPullParserPool.release(parser);
+        }
         return parser;
     }
-}
\ No newline at end of file
+
+    /**
+     * Borrow a default XmlPullParser from the pool shared by all threads that decodes the stream
+     * as it parses. Hand it back with {@link #releaseXmlPullParser} once parsing is done
+     *
+     * @param charset The charset of the stream, or null to detect it from the XML declaration
+     */
+    public static XmlPullParser getXmlPullParser(InputStream inputStream, String charset)
+            throws XmlPullParserException, IOException {
+        XmlPullParser parser = XmlPullParserPool.borrow();
+        boolean started = false;
+        try {
+            parser.setInput(inputStream, charset);
+            parser.nextTag();
+            started = true;
+        } finally {
+            if (!started) XmlPullParserPool.release(parser);
+        }
+        return parser;
+    }
+
+    /**
+     * Return a parser from {@link #getXmlPullParser} to the shared pool so the next parse on any
+     * thread can reuse it. The parser must not be used afterwards. Parsers that aren't released still work, they
+     * are just garbage collected instead of reused
+     */
+    public static void releaseXmlPullParser(XmlPullParser parser) {
+        XmlPullParserPool.release(parser);
+    }
+
+    /**
+     * Advance the zip to the named entry and borrow a parser over it. The entries before it are
+     * skipped without being decoded. Hand it back with {@link #releaseXmlPullParser}
+     *
+     * @throws XmlException If the zip doesn't contain the entry
+     */
+    public static XmlPullParser getXmlPullParser(ZipInputStream zipStream, String entryName,
+                                                 String charset)
+            throws XmlPullParserException, IOException, XmlException {
+        ZipEntry entry;
+        while ((entry = zipStream.getNextEntry()) != null) {
+            if (entry.getName().equals(entryName)) return getXmlPullParser(zipStream, charset);
+        }
+        throw new XmlException("Zip does not contain " + entryName);
+    }
+
+    /**
+     * Wrap a response body so it is inflated as it is read if the response is gzip encoded. The
+     * body is read as is if the server ignored the Accept-Encoding header, and also if it says gzip
+     * but doesn't start with the gzip magic number, as some proxies inflate the body without
+     * dropping the header
+     *
+     * @param contentEncoding The Content-Encoding header of the response, or null if there is none
+     */
+    public static InputStream decodeContent(InputStream dataStream, String contentEncoding)
+            throws IOException {
+        if (contentEncoding == null || !contentEncoding.trim().equalsIgnoreCase(ENCODING_GZIP)) {
+            return dataStream;
+        }
+        if (!dataStream.markSupported()) dataStream = new BufferedInputStream(dataStream);
+        dataStream.mark(2);
+        int magic = dataStream.read() | (dataStream.read() << 8);
+        dataStream.reset();
+        return (magic == GZIPInputStream.GZIP_MAGIC) ? new GZIPInputStream(dataStream) : dataStream;
+    }
+
+    /**
+     * Parse the zip, streaming it through the parser if it is a {@link ZippedXmlObjectListParser}
+     * and unpacking it into Strings otherwise
+     *
+     * @param dataStream The zipped data or a {@link ZipInputStream} over it, read to the end
+     */
+    public static <T> Collection<T> parseZip(XmlObjectListParser<T> xmlParser,
+                                             InputStream dataStream, String charset)
+            throws IOException, XmlException {
+        ZipInputStream zipStream = (dataStream instanceof ZipInputStream) ?
+                (ZipInputStream) dataStream : new ZipInputStream(dataStream);
+        if (xmlParser instanceof ZippedXmlObjectListParser) {
+            return ((ZippedXmlObjectListParser<T>) xmlParser).parseListFromZip(zipStream, charset);
+        }
+        Map<String, String> xmlStrings = unpackZip(zipStream, charset);
+        return xmlParser.parseListFromXmlStrings(xmlStrings);
+    }
+
+    /**
+     * Unpack every file in the zip into a String keyed by the file name
+     */
+    private static Map<String, String> unpackZip(ZipInputStream zipStream, String charset)
+            throws IOException {
+        byte[] buffer = new byte[1024];
+        ZipEntry ze;
+        int count;
+        Map<String, String> xmlStrings = new HashMap<String, String>();
+        while ((ze = zipStream.getNextEntry()) != null) {
+            ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+            while ((count = zipStream.read(buffer)) != -1) {
+                byteStream.write(buffer, 0, count);
+            }
+            xmlStrings.put(ze.getName(), byteStream.toString(charset));
+        }
+
+        return xmlStrings;
+    }
+}
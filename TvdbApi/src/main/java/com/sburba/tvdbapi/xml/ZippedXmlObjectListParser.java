@@ -0,0 +1,20 @@
+package com.sburba.tvdbapi.xml;
+
+import java.util.Collection;
+import java.util.zip.ZipInputStream;
+
+/**
+ * A {@link XmlObjectListParser} that can parse straight from a zip without unpacking it into
+ * Strings first
+ */
+public interface ZippedXmlObjectListParser<T> extends XmlObjectListParser<T> {
+    /**
+     * Parse the entries this parser needs as they are inflated, skipping the other entries without
+     * decoding them
+     *
+     * @param zipStream Zip positioned before its first entry
+     * @param charset   Charset of the XML files in the zip
+     */
+    public Collection<T> parseListFromZip(ZipInputStream zipStream, String charset)
+            throws XmlException;
+}
@@ -0,0 +1,59 @@
+package com.sburba.tvdbapi.benchmark;
+
+import com.sburba.tvdbapi.model.Episode;
+import com.sburba.tvdbapi.model.Series;
+import com.sburba.tvdbapi.parser.EpisodeParser;
+import com.sburba.tvdbapi.parser.SeriesParser;
+import com.sburba.tvdbapi.xml.XmlException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the single record lookups, where setting up the parser is a large part of the
+ * work
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class EpisodeLookupBenchmark {
+
+    private byte[] mEpisodeXml;
+    private byte[] mSeriesXml;
+
+    @Setup
+    public void loadFixtures() throws IOException {
+        mEpisodeXml = Fixtures.getEpisodeXml();
+        mSeriesXml = Fixtures.getSearchXml("small");
+    }
+
+    @Benchmark
+    public Episode episode() throws XmlException {
+        return new EpisodeParser(Fixtures.LANGUAGE)
+                .parseXmlStream(new ByteArrayInputStream(mEpisodeXml), Fixtures.CHARSET);
+    }
+
+    /**
+     * Same shape as an IMDB id lookup, which reads the first series of the response
+     */
+    @Benchmark
+    public Series series() throws XmlException {
+        return new SeriesParser().parseXmlStream(new ByteArrayInputStream(mSeriesXml),
+                                                 Fixtures.CHARSET);
+    }
+}
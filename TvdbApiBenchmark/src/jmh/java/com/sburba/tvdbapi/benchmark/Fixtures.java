@@ -0,0 +1,77 @@
+package com.sburba.tvdbapi.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Loads the recorded TVDB responses checked in under {@code src/jmh/resources/fixtures}. Each
+ * size has a search result and a series zip holding en.xml, banners.xml and actors.xml:
+ * <ul>
+ * <li>small: 1 season of 8 episodes, 10 banners, 4 actors, 3 search results</li>
+ * <li>typical: 7 seasons of 20 episodes, 60 banners, 20 actors, 15 search results</li>
+ * <li>huge: 30 seasons of 50 episodes, 500 banners, 100 actors, 100 search results</li>
+ * </ul>
+ * There is also a single episode for the per-episode lookups
+ */
+public class Fixtures {
+    public static final String CHARSET = "UTF-8";
+    public static final String LANGUAGE = "en";
+
+    public static final String EPISODES = LANGUAGE + ".xml";
+    public static final String BANNERS = "banners.xml";
+    public static final String ACTORS = "actors.xml";
+
+    private static final String FIXTURES = "/fixtures/";
+
+    public static byte[] getSearchXml(String size) throws IOException {
+        return read("search-" + size + ".xml");
+    }
+
+    public static byte[] getSeriesZip(String size) throws IOException {
+        return read("series-" + size + ".zip");
+    }
+
+    public static byte[] getEpisodeXml() throws IOException {
+        return read("episode.xml");
+    }
+
+    /**
+     * @return The uncompressed content of one file in the zip
+     */
+    public static byte[] getZipEntry(byte[] zip, String entryName) throws IOException {
+        ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(zip));
+        try {
+            ZipEntry entry;
+            while ((entry = zipStream.getNextEntry()) != null) {
+                if (entry.getName().equals(entryName)) return readFully(zipStream);
+            }
+        } finally {
+            zipStream.close();
+        }
+        throw new IOException("Zip does not contain " + entryName);
+    }
+
+    private static byte[] read(String name) throws IOException {
+        InputStream in = Fixtures.class.getResourceAsStream(FIXTURES + name);
+        if (in == null) throw new IOException("Missing fixture " + name);
+        try {
+            return readFully(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            bytes.write(buffer, 0, count);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,157 @@
+package com.sburba.tvdbapi.benchmark;
+
+import com.sburba.tvdbapi.model.Actor;
+import com.sburba.tvdbapi.model.Banner;
+import com.sburba.tvdbapi.model.Episode;
+import com.sburba.tvdbapi.model.Season;
+import com.sburba.tvdbapi.model.Series;
+import com.sburba.tvdbapi.model.SeriesBundle;
+import com.sburba.tvdbapi.parser.ActorListParser;
+import com.sburba.tvdbapi.parser.BannerListParser;
+import com.sburba.tvdbapi.parser.EpisodeParser;
+import com.sburba.tvdbapi.parser.SeasonListParser;
+import com.sburba.tvdbapi.parser.SeriesBundleParser;
+import com.sburba.tvdbapi.parser.SeriesParser;
+import com.sburba.tvdbapi.xml.XmlException;
+import com.sburba.tvdbapi.xml.XmlObjectListParser;
+import com.sburba.tvdbapi.xml.XmlUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Throughput of each parser over the small, typical and huge fixtures, see {@link Fixtures}.
+ * Run with the gc profiler (the build's default) to get the bytes allocated per parse as
+ * {@code gc.alloc.rate.norm}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"small", "typical", "huge"})
+    public String size;
+
+    private byte[] mSearchXml;
+    private byte[] mSeriesZip;
+    private byte[] mEpisodesXml;
+    private byte[] mBannersXml;
+    private byte[] mActorsXml;
+    private Map<String, String> mUnpackedZip;
+
+    @Setup
+    public void loadFixtures() throws IOException {
+        mSearchXml = Fixtures.getSearchXml(size);
+        mSeriesZip = Fixtures.getSeriesZip(size);
+        mEpisodesXml = Fixtures.getZipEntry(mSeriesZip, Fixtures.EPISODES);
+        mBannersXml = Fixtures.getZipEntry(mSeriesZip, Fixtures.BANNERS);
+        mActorsXml = Fixtures.getZipEntry(mSeriesZip, Fixtures.ACTORS);
+
+        mUnpackedZip = new HashMap<String, String>();
+        mUnpackedZip.put(Fixtures.EPISODES, new String(mEpisodesXml, Fixtures.CHARSET));
+        mUnpackedZip.put(Fixtures.BANNERS, new String(mBannersXml, Fixtures.CHARSET));
+        mUnpackedZip.put(Fixtures.ACTORS, new String(mActorsXml, Fixtures.CHARSET));
+    }
+
+    @Benchmark
+    public Collection<Series> seriesParser() throws XmlException {
+        return new SeriesParser().parseListFromXmlStream(stream(mSearchXml), Fixtures.CHARSET);
+    }
+
+    @Benchmark
+    public Collection<Episode> episodeParser() throws XmlException {
+        return new EpisodeParser(Fixtures.LANGUAGE)
+                .parseListFromXmlStream(stream(mEpisodesXml), Fixtures.CHARSET);
+    }
+
+    @Benchmark
+    public Collection<Season> seasonListParserFromZip() throws XmlException {
+        return new SeasonListParser(Fixtures.LANGUAGE).parseListFromZip(zip(), Fixtures.CHARSET);
+    }
+
+    /**
+     * The path a season request takes when the zip has been unpacked into Strings
+     */
+    @Benchmark
+    public Collection<Season> seasonListParserFromStrings() throws XmlException {
+        return new SeasonListParser(Fixtures.LANGUAGE).parseListFromXmlStrings(mUnpackedZip);
+    }
+
+    @Benchmark
+    public Collection<Banner> bannerListParser() throws XmlException {
+        return new BannerListParser().parseListFromXmlStream(stream(mBannersXml),
+                                                             Fixtures.CHARSET);
+    }
+
+    @Benchmark
+    public Collection<Actor> actorListParser() throws XmlException {
+        return new ActorListParser().parseListFromXmlStream(stream(mActorsXml), Fixtures.CHARSET);
+    }
+
+    @Benchmark
+    public Collection<SeriesBundle> seriesBundleParser() throws XmlException {
+        return new SeriesBundleParser(Fixtures.LANGUAGE).parseListFromZip(zip(),
+                                                                          Fixtures.CHARSET);
+    }
+
+    /**
+     * Unpacking the zip into Strings, which {@link XmlUtil#parseZip} does for parsers that can't
+     * stream a zip, without parsing them
+     */
+    @Benchmark
+    public Collection<String> unpackZip() throws IOException, XmlException {
+        return XmlUtil.parseZip(UNPACK_ONLY, stream(mSeriesZip), Fixtures.CHARSET);
+    }
+
+    private static InputStream stream(byte[] data) {
+        return new ByteArrayInputStream(data);
+    }
+
+    private ZipInputStream zip() {
+        return new ZipInputStream(stream(mSeriesZip));
+    }
+
+    /**
+     * Returns the unpacked Strings so the unpacking can't be optimized away
+     */
+    private static final XmlObjectListParser<String> UNPACK_ONLY =
+            new XmlObjectListParser<String>() {
+                @Override
+                public Collection<String> parseListFromXmlString(String xml) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public Collection<String> parseListFromXmlStream(InputStream inputStream,
+                                                                 String charset) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public Collection<String> parseListFromXmlStrings(Map<String, String> xmlStrings) {
+                    return new ArrayList<String>(xmlStrings.values());
+                }
+            };
+}
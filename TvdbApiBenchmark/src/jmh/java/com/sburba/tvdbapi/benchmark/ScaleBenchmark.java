@@ -0,0 +1,84 @@
+package com.sburba.tvdbapi.benchmark;
+
+import com.sburba.tvdbapi.model.Episode;
+import com.sburba.tvdbapi.model.Season;
+import com.sburba.tvdbapi.model.SeriesBundle;
+import com.sburba.tvdbapi.parser.EpisodeParser;
+import com.sburba.tvdbapi.parser.SeasonListParser;
+import com.sburba.tvdbapi.parser.SeriesBundleParser;
+import com.sburba.tvdbapi.xml.XmlException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Time per parse of zips from {@link SeriesZipGenerator} as the episode count grows by orders of
+ * magnitude. The time per episode should stay flat, any growth points at superlinear work in the
+ * parser. Shuffled episodes stop the season sets from only ever appending to the end
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScaleBenchmark {
+
+    @Param({"10", "1000", "10000", "50000"})
+    public int episodes;
+
+    @Param({"false", "true"})
+    public boolean shuffled;
+
+    private String mLanguage;
+    private byte[] mSeriesZip;
+    private byte[] mEpisodesXml;
+
+    @Setup
+    public void generateZip() throws IOException {
+        SeriesZipGenerator generator = new SeriesZipGenerator.Builder()
+                .setEpisodes(episodes)
+                .setSeasons(Math.max(1, episodes / 20))
+                .setBanners(Math.max(10, episodes / 10))
+                .setShuffled(shuffled)
+                .build();
+        mLanguage = generator.getLanguage();
+        mSeriesZip = generator.generateZip();
+        mEpisodesXml = Fixtures.getZipEntry(mSeriesZip, mLanguage + ".xml");
+    }
+
+    @Benchmark
+    public Collection<Episode> episodeParser() throws XmlException {
+        return new EpisodeParser(mLanguage).parseListFromXmlStream(
+                new ByteArrayInputStream(mEpisodesXml), Fixtures.CHARSET);
+    }
+
+    @Benchmark
+    public Collection<Season> seasonListParserFromZip() throws XmlException {
+        return new SeasonListParser(mLanguage).parseListFromZip(zip(), Fixtures.CHARSET);
+    }
+
+    @Benchmark
+    public Collection<SeriesBundle> seriesBundleParser() throws XmlException {
+        return new SeriesBundleParser(mLanguage).parseListFromZip(zip(), Fixtures.CHARSET);
+    }
+
+    private ZipInputStream zip() {
+        return new ZipInputStream(new ByteArrayInputStream(mSeriesZip));
+    }
+}
@@ -0,0 +1,580 @@
+package com.sburba.tvdbapi.benchmark;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates series zips shaped like the ones TVDB serves from {@code series/<id>/all/<lang>.zip},
+ * holding {@code <lang>.xml}, banners.xml and actors.xml, so the parsers can be run against any
+ * number of episodes, banners and actors. The output only depends on the settings and the seed,
+ * so a slow input can be reproduced exactly.
+ * <p/>
+ * Episodes are spread evenly over the seasons and written in season order unless
+ * {@link Builder#setShuffled(boolean)} is set. With more than one language the episodes, banners
+ * and overviews are split between them by weight, the text drawn from words in that language's
+ * script.
+ * <p/>
+ * Can also be run from the command line, see {@link #main(String[])}
+ */
+public class SeriesZipGenerator {
+    public static final int MIN_EPISODES = 10;
+    public static final int MAX_EPISODES = 50000;
+
+    private static final String CHARSET = "UTF-8";
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n";
+    // 2014-08-14, the lastupdated of the series
+    private static final long ENTRY_TIME = 1408051390000L;
+    private static final String[] BANNER_TYPES =
+            {"fanart", "poster", "season", "season", "series"};
+    private static final String[] BANNER_TYPES2 =
+            {"1920x1080", "680x1000", "season", "seasonwide", "graphical"};
+    private static final String[] FIRST_NAMES = {"Billy", "John", "Katey", "Lauren", "Phil",
+            "Tress", "David", "Maurice", "Kath", "Rich", "Dan", "Ken", "Eric", "Patric"};
+    private static final String[] LAST_NAMES = {"West", "DiMaggio", "Sagal", "LaMarche", "Tress",
+            "MacNeille", "Herman", "Moore", "Hulett", "Keeler", "Jacobs", "Soucie"};
+    private static final String[] NETWORKS = {"FOX", "NBC", "BBC One", "Comedy Central", "HBO"};
+
+    private final int mSeriesId;
+    private final int mEpisodes;
+    private final int mSeasons;
+    private final int mBanners;
+    private final int mActors;
+    private final int mMinOverviewWords;
+    private final int mMaxOverviewWords;
+    private final List<String> mLanguages;
+    private final boolean mShuffled;
+    private final long mSeed;
+    private Random mRandom;
+
+    private SeriesZipGenerator(Builder builder) {
+        mSeriesId = builder.seriesId;
+        mEpisodes = builder.episodes;
+        mSeasons = Math.min(builder.seasons, builder.episodes);
+        mBanners = builder.banners;
+        mActors = builder.actors;
+        mMinOverviewWords = builder.minOverviewWords;
+        mMaxOverviewWords = builder.maxOverviewWords;
+        mShuffled = builder.shuffled;
+        mSeed = builder.seed;
+        if (builder.languages.isEmpty()) {
+            mLanguages = Collections.singletonList(Vocabulary.ENGLISH.language);
+        } else {
+            mLanguages = new ArrayList<String>(builder.languages);
+        }
+    }
+
+    /**
+     * The language of the series, which names the episode file in the zip. The parsers have to
+     * be created with this language to find it
+     */
+    public String getLanguage() {
+        return mLanguages.get(0);
+    }
+
+    public int getSeriesId() {
+        return mSeriesId;
+    }
+
+    public byte[] generateZip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeZip(bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Write the zip to the stream, which is left open
+     */
+    public void writeZip(OutputStream out) throws IOException {
+        // Every call starts over so it produces the same zip
+        mRandom = new Random(mSeed);
+        ZipOutputStream zipStream = new ZipOutputStream(new NonClosingOutputStream(out));
+        Writer writer = new OutputStreamWriter(zipStream, CHARSET);
+
+        zipStream.putNextEntry(entry(getLanguage() + ".xml"));
+        writeEpisodesXml(writer);
+        writer.flush();
+        zipStream.closeEntry();
+
+        zipStream.putNextEntry(entry("banners.xml"));
+        writeBannersXml(writer);
+        writer.flush();
+        zipStream.closeEntry();
+
+        zipStream.putNextEntry(entry("actors.xml"));
+        writeActorsXml(writer);
+        writer.flush();
+        zipStream.closeEntry();
+
+        zipStream.finish();
+        writer.close();
+    }
+
+    /**
+     * A zip entry with a fixed time, so the zip doesn't change with the time it was written
+     */
+    private static ZipEntry entry(String name) {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(ENTRY_TIME);
+        return entry;
+    }
+
+    private void writeEpisodesXml(Writer writer) throws IOException {
+        writer.write(XML_HEADER);
+        writer.write("<Data>\n");
+        writeSeries(writer);
+
+        List<int[]> episodes = new ArrayList<int[]>(mEpisodes);
+        for (int i = 0; i < mEpisodes; i++) {
+            int seasonNumber = (int) ((long) i * mSeasons / mEpisodes) + 1;
+            int firstOfSeason = (int) (((long) (seasonNumber - 1) * mEpisodes + mSeasons - 1) /
+                                       mSeasons);
+            episodes.add(new int[]{seasonNumber, i - firstOfSeason + 1, i + 1});
+        }
+        if (mShuffled) Collections.shuffle(episodes, mRandom);
+
+        for (int[] episode : episodes) {
+            writeEpisode(writer, episode[0], episode[1], episode[2]);
+        }
+        writer.write("</Data>\n");
+    }
+
+    private void writeSeries(Writer writer) throws IOException {
+        Vocabulary vocabulary = Vocabulary.forLanguage(getLanguage());
+        writer.write("<Series>\n");
+        element(writer, "id", mSeriesId);
+        element(writer, "Actors", names(8));
+        element(writer, "Airs_DayOfWeek", "Thursday");
+        element(writer, "Airs_Time", "10:00 PM");
+        element(writer, "ContentRating", "TV-PG");
+        element(writer, "FirstAired", "1999-03-28");
+        element(writer, "Genre", "|Animation|Comedy|Science-Fiction|");
+        element(writer, "IMDB_ID", "tt0149460");
+        element(writer, "Language", getLanguage());
+        element(writer, "Network", pick(NETWORKS));
+        element(writer, "NetworkID", "");
+        element(writer, "Overview", overview(vocabulary));
+        element(writer, "Rating", "8.8");
+        element(writer, "RatingCount", 450);
+        element(writer, "Runtime", 30);
+        element(writer, "SeriesID", 23163);
+        element(writer, "SeriesName", title(vocabulary));
+        element(writer, "Status", "Continuing");
+        element(writer, "added", "");
+        element(writer, "addedBy", "");
+        element(writer, "banner", "graphical/" + mSeriesId + "-g.jpg");
+        element(writer, "fanart", "fanart/original/" + mSeriesId + "-1.jpg");
+        element(writer, "lastupdated", 1408051390);
+        element(writer, "poster", "posters/" + mSeriesId + "-1.jpg");
+        element(writer, "zap2it_id", "SH00219052");
+        writer.write("</Series>\n");
+    }
+
+    private void writeEpisode(Writer writer, int seasonNumber, int episodeNumber,
+                              int absoluteNumber) throws IOException {
+        Vocabulary vocabulary = Vocabulary.forLanguage(pickLanguage());
+        int id = 3000 + absoluteNumber;
+        String firstAired = String.format(Locale.US, "%04d-%02d-%02d",
+                                          1950 + seasonNumber % 70, mRandom.nextInt(12) + 1,
+                                          mRandom.nextInt(28) + 1);
+        writer.write("<Episode>\n");
+        element(writer, "id", id);
+        element(writer, "Combined_episodenumber", episodeNumber);
+        element(writer, "Combined_season", seasonNumber);
+        element(writer, "DVD_chapter", "");
+        element(writer, "DVD_discid", "");
+        element(writer, "DVD_episodenumber", episodeNumber + ".0");
+        element(writer, "DVD_season", seasonNumber);
+        element(writer, "Director", name());
+        element(writer, "EpImgFlag", 2);
+        element(writer, "EpisodeName", title(vocabulary));
+        element(writer, "EpisodeNumber", episodeNumber);
+        element(writer, "FirstAired", firstAired);
+        element(writer, "GuestStars", names(mRandom.nextInt(5)));
+        element(writer, "IMDB_ID", "tt0" + (584400 + mRandom.nextInt(600)));
+        element(writer, "Language", vocabulary.language);
+        element(writer, "Overview", overview(vocabulary));
+        element(writer, "ProductionCode",
+                String.format(Locale.US, "%dACV%02d", seasonNumber, episodeNumber));
+        element(writer, "Rating", String.format(Locale.US, "%.1f", 6 + mRandom.nextFloat() * 3.5));
+        element(writer, "RatingCount", 5 + mRandom.nextInt(56));
+        element(writer, "SeasonNumber", seasonNumber);
+        element(writer, "Writer", names(1));
+        element(writer, "absolute_number", absoluteNumber);
+        element(writer, "airsafter_season", "");
+        element(writer, "airsbefore_episode", "");
+        element(writer, "airsbefore_season", "");
+        element(writer, "filename", "episodes/" + mSeriesId + "/" + id + ".jpg");
+        element(writer, "lastupdated", 1300000000 + mRandom.nextInt(108000000));
+        element(writer, "seasonid", 10000 + seasonNumber);
+        element(writer, "seriesid", mSeriesId);
+        element(writer, "thumb_added", "");
+        element(writer, "thumb_height", 225);
+        element(writer, "thumb_width", 400);
+        writer.write("</Episode>\n");
+    }
+
+    private void writeBannersXml(Writer writer) throws IOException {
+        writer.write(XML_HEADER);
+        writer.write("<Banners>\n");
+        for (int i = 0; i < mBanners; i++) {
+            String type = BANNER_TYPES[i % BANNER_TYPES.length];
+            String path = type + "s/" + mSeriesId + "-" + i + ".jpg";
+            writer.write("<Banner>\n");
+            element(writer, "id", 900000 + i);
+            element(writer, "BannerPath", path);
+            element(writer, "BannerType", type);
+            element(writer, "BannerType2", BANNER_TYPES2[i % BANNER_TYPES2.length]);
+            element(writer, "Colors", type.equals("fanart") ? colors() : "");
+            element(writer, "Language", pickLanguage());
+            element(writer, "Rating",
+                    String.format(Locale.US, "%.4f", 5 + mRandom.nextFloat() * 5));
+            element(writer, "RatingCount", 1 + mRandom.nextInt(40));
+            element(writer, "SeriesName", (i % 3 == 0) ? "true" : "false");
+            element(writer, "ThumbnailPath", "_cache/" + path);
+            element(writer, "VignettePath", type + "s/vignette/" + mSeriesId + "-" + i + ".jpg");
+            if (type.equals("season")) element(writer, "Season", i % mSeasons + 1);
+            writer.write("</Banner>\n");
+        }
+        writer.write("</Banners>\n");
+    }
+
+    private void writeActorsXml(Writer writer) throws IOException {
+        Vocabulary vocabulary = Vocabulary.forLanguage(getLanguage());
+        writer.write(XML_HEADER);
+        writer.write("<Actors>\n");
+        for (int i = 0; i < mActors; i++) {
+            writer.write("<Actor>\n");
+            element(writer, "id", 27000 + i);
+            element(writer, "Image", "actors/" + (27000 + i) + ".jpg");
+            element(writer, "Name", name());
+            element(writer, "Role", title(vocabulary));
+            element(writer, "SortOrder", Math.min(i, 3));
+            writer.write("</Actor>\n");
+        }
+        writer.write("</Actors>\n");
+    }
+
+    private String pickLanguage() {
+        return mLanguages.get(mRandom.nextInt(mLanguages.size()));
+    }
+
+    private String pick(String[] values) {
+        return values[mRandom.nextInt(values.length)];
+    }
+
+    private String name() {
+        return pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+    }
+
+    /**
+     * @return count names in TVDB's pipe separated list format
+     */
+    private String names(int count) {
+        StringBuilder names = new StringBuilder("|");
+        for (int i = 0; i < count; i++) {
+            names.append(name()).append('|');
+        }
+        return names.toString();
+    }
+
+    private String colors() {
+        StringBuilder colors = new StringBuilder("|");
+        for (int i = 0; i < 3; i++) {
+            colors.append(mRandom.nextInt(256)).append(',').append(mRandom.nextInt(256))
+                  .append(',').append(mRandom.nextInt(256)).append('|');
+        }
+        return colors.toString();
+    }
+
+    private String title(Vocabulary vocabulary) {
+        return vocabulary.words(mRandom, 2 + mRandom.nextInt(4), true);
+    }
+
+    private String overview(Vocabulary vocabulary) {
+        int words = mMinOverviewWords + mRandom.nextInt(mMaxOverviewWords - mMinOverviewWords + 1);
+        StringBuilder overview = new StringBuilder();
+        while (words > 0) {
+            int sentenceWords = Math.min(words, 8 + mRandom.nextInt(9));
+            if (overview.length() > 0) overview.append(vocabulary.separator);
+            overview.append(vocabulary.words(mRandom, sentenceWords, false))
+                    .append(vocabulary.fullStop);
+            words -= sentenceWords;
+        }
+        return overview.toString();
+    }
+
+    private static void element(Writer writer, String name, int value) throws IOException {
+        element(writer, name, Integer.toString(value));
+    }
+
+    private static void element(Writer writer, String name, String value) throws IOException {
+        writer.write('<');
+        writer.write(name);
+        writer.write('>');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '&') {
+                writer.write("&amp;");
+            } else if (c == '<') {
+                writer.write("&lt;");
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write("</");
+        writer.write(name);
+        writer.write(">\n");
+    }
+
+    /**
+     * Words to make up text in one language. The scripts are picked to cover one, two and three
+     * byte UTF-8 characters and escaped entities
+     */
+    private static class Vocabulary {
+        static final Vocabulary ENGLISH = new Vocabulary("en", " ", ".",
+                "the a of and to in is his her their after before crew ship planet delivery " +
+                "robot professor finds discovers must save city future old new friend enemy " +
+                "secret plan goes wrong meanwhile returns home love war time machine party fight " +
+                "escape trapped strange alien world earth moon space year thousand learns truth " +
+                "family job money heist trial court brain slug election & <none>");
+        static final Vocabulary GERMAN = new Vocabulary("de", " ", ".",
+                "der die das und nach über Straße Mädchen größer Schlüssel fährt zurück " +
+                "Geheimnis Freund Feind Stadt Zukunft Raumschiff Planet Roboter muss retten " +
+                "findet Familie Geld Gericht Wahl Mond Erde während schön");
+        static final Vocabulary FRENCH = new Vocabulary("fr", " ", ".",
+                "le la les et après été où château élève fête ça être vaisseau planète robot " +
+                "ville avenir ami ennemi secret doit sauver découvre famille procès lune terre");
+        static final Vocabulary RUSSIAN = new Vocabulary("ru", " ", ".",
+                "и в на после дом город друг враг тайна будущее корабль планета робот профессор " +
+                "находит должен спасти семья деньги суд выборы луна земля время машина");
+        static final Vocabulary JAPANESE = new Vocabulary("ja", "", "。",
+                "の に は を 宇宙 船 町 友達 秘密 未来 帰る 戦い 家族 ロボット 教授 配達 惑星 " +
+                "地球 月 裁判 選挙 お金 時間 機械 逃げる 救う 見つける");
+
+        private static final Vocabulary[] ALL = {ENGLISH, GERMAN, FRENCH, RUSSIAN, JAPANESE};
+
+        final String language;
+        final String separator;
+        final String fullStop;
+        private final String[] mWords;
+
+        Vocabulary(String language, String separator, String fullStop, String words) {
+            this.language = language;
+            this.separator = separator;
+            this.fullStop = fullStop;
+            mWords = words.split(" ");
+        }
+
+        String words(Random random, int count, boolean capitalizeAll) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                String word = mWords[random.nextInt(mWords.length)];
+                if (i > 0) text.append(separator);
+                if (i == 0 || capitalizeAll) {
+                    text.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+                } else {
+                    text.append(word);
+                }
+            }
+            return text.toString();
+        }
+
+        static boolean isSupported(String language) {
+            for (Vocabulary vocabulary : ALL) {
+                if (vocabulary.language.equals(language)) return true;
+            }
+            return false;
+        }
+
+        static Vocabulary forLanguage(String language) {
+            for (Vocabulary vocabulary : ALL) {
+                if (vocabulary.language.equals(language)) return vocabulary;
+            }
+            return ENGLISH;
+        }
+    }
+
+    /**
+     * Lets the zip be finished without closing the stream it's written to
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int count) throws IOException {
+            out.write(buffer, offset, count);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    public static class Builder {
+        private int seriesId = 73871;
+        private int episodes = 140;
+        private int seasons = 7;
+        private int banners = 60;
+        private int actors = 20;
+        private int minOverviewWords = 16;
+        private int maxOverviewWords = 64;
+        private List<String> languages = new ArrayList<String>();
+        private boolean shuffled = false;
+        private long seed = 73871;
+
+        public Builder setSeriesId(int seriesId) {
+            this.seriesId = seriesId;
+            return this;
+        }
+
+        /**
+         * @param episodes Between {@link #MIN_EPISODES} and {@link #MAX_EPISODES}
+         */
+        public Builder setEpisodes(int episodes) {
+            if (episodes < MIN_EPISODES || episodes > MAX_EPISODES) {
+                throw new IllegalArgumentException(
+                        "Episodes must be between " + MIN_EPISODES + " and " + MAX_EPISODES);
+            }
+            this.episodes = episodes;
+            return this;
+        }
+
+        /**
+         * @param seasons The episodes are spread evenly over this many seasons, at most one
+         *                season per episode
+         */
+        public Builder setSeasons(int seasons) {
+            if (seasons < 1) throw new IllegalArgumentException("Need at least one season");
+            this.seasons = seasons;
+            return this;
+        }
+
+        public Builder setBanners(int banners) {
+            if (banners < 0) throw new IllegalArgumentException("Banners can't be negative");
+            this.banners = banners;
+            return this;
+        }
+
+        public Builder setActors(int actors) {
+            if (actors < 0) throw new IllegalArgumentException("Actors can't be negative");
+            this.actors = actors;
+            return this;
+        }
+
+        /**
+         * Each overview gets a random number of words in this range, split into sentences
+         */
+        public Builder setOverviewLength(int minWords, int maxWords) {
+            if (minWords < 0 || maxWords < minWords) {
+                throw new IllegalArgumentException("Invalid overview length " + minWords + " to " +
+                                                   maxWords);
+            }
+            this.minOverviewWords = minWords;
+            this.maxOverviewWords = maxWords;
+            return this;
+        }
+
+        /**
+         * Add a language to the mix. The first one added is the series language, adding one
+         * more than once gives it a bigger share of episodes and banners. Supported: en, de, fr,
+         * ru and ja
+         */
+        public Builder addLanguage(String language) {
+            if (!Vocabulary.isSupported(language)) {
+                throw new IllegalArgumentException("Unsupported language " + language);
+            }
+            this.languages.add(language);
+            return this;
+        }
+
+        /**
+         * @param shuffled Write the episodes in random order instead of by season
+         */
+        public Builder setShuffled(boolean shuffled) {
+            this.shuffled = shuffled;
+            return this;
+        }
+
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public SeriesZipGenerator build() {
+            return new SeriesZipGenerator(this);
+        }
+    }
+
+    /**
+     * Writes a zip to a file:
+     * <pre>
+     * SeriesZipGenerator &lt;file&gt; [episodes=N] [seasons=N] [banners=N] [actors=N]
+     *     [overview=MIN-MAX] [languages=en,de,...] [shuffled=true] [seed=N]
+     * </pre>
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SeriesZipGenerator <file> [episodes=N] [seasons=N] " +
+                               "[banners=N] [actors=N] [overview=MIN-MAX] " +
+                               "[languages=en,de,...] [shuffled=true] [seed=N]");
+            System.exit(1);
+        }
+
+        Builder builder = new Builder();
+        for (int i = 1; i < args.length; i++) {
+            int equals = args[i].indexOf('=');
+            if (equals == -1) throw new IllegalArgumentException("Expected key=value: " + args[i]);
+            String key = args[i].substring(0, equals);
+            String value = args[i].substring(equals + 1);
+            if (key.equals("episodes")) {
+                builder.setEpisodes(Integer.parseInt(value));
+            } else if (key.equals("seasons")) {
+                builder.setSeasons(Integer.parseInt(value));
+            } else if (key.equals("banners")) {
+                builder.setBanners(Integer.parseInt(value));
+            } else if (key.equals("actors")) {
+                builder.setActors(Integer.parseInt(value));
+            } else if (key.equals("overview")) {
+                String[] range = value.split("-");
+                builder.setOverviewLength(Integer.parseInt(range[0]),
+                                          Integer.parseInt(range[range.length - 1]));
+            } else if (key.equals("languages")) {
+                for (String language : value.split(",")) {
+                    builder.addLanguage(language);
+                }
+            } else if (key.equals("shuffled")) {
+                builder.setShuffled(Boolean.parseBoolean(value));
+            } else if (key.equals("seed")) {
+                builder.setSeed(Long.parseLong(value));
+            } else {
+                throw new IllegalArgumentException("Unknown setting " + key);
+            }
+        }
+
+        SeriesZipGenerator generator = builder.build();
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(args[0]));
+        try {
+            generator.writeZip(out);
+        } finally {
+            out.close();
+        }
+        System.out.println("Wrote " + args[0] + ", parse it with language " +
+                           generator.getLanguage());
+    }
+}
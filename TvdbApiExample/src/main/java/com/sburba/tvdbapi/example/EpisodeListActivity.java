@@ -16,20 +16,25 @@ import com.sburba.tvdbapi.TvdbApi;
 import com.sburba.tvdbapi.TvdbItemAdapter;
 import com.sburba.tvdbapi.model.Episode;
 import com.sburba.tvdbapi.model.Season;
+import com.sburba.tvdbapi.xml.ChunkListener;
 
 import java.util.Collection;
+import java.util.List;
 
 public class EpisodeListActivity extends Activity {
 
     public static final String EXTRA_SEASON = "season";
     private static final String TAG = "EpisodeListActivity";
+    private static final int EPISODE_CHUNK_SIZE = 20;
 
     private TvdbItemAdapter<Episode> mEpisodeAdapter;
+    private TvdbApi mTvdbApi;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         App app = App.getInstance(this);
+        mTvdbApi = new TvdbApi(App.TVDB_API_KEY, "en", app.getRequestQueue()).withTag(this);
         mEpisodeAdapter =
                 new TvdbItemAdapter<Episode>(this, app.getImageLoader(), R.layout.tvdb_item,
                                              R.id.title, R.id.image);
@@ -41,12 +46,19 @@ public class EpisodeListActivity extends Activity {
         Intent intent = getIntent();
         Season season = intent.getParcelableExtra(EXTRA_SEASON);
         if (season != null) {
-            TvdbApi tvdbApi = new TvdbApi(App.TVDB_API_KEY, "en", app.getRequestQueue());
-            tvdbApi.getEpisodes(season, mEpisodeResponseListener, mErrorListener);
+            mTvdbApi.getEpisodes(season, EPISODE_CHUNK_SIZE, mEpisodeChunkListener,
+                                 mErrorListener);
         }
 
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Nobody will see the episodes anymore, so stop downloading and parsing them
+        mTvdbApi.cancelAll(this);
+    }
+
 
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
@@ -65,13 +77,16 @@ public class EpisodeListActivity extends Activity {
                 }
             };
 
-    private Response.Listener<Collection<Episode>> mEpisodeResponseListener =
-            new Response.Listener<Collection<Episode>>() {
-                @Override
-                public void onResponse(Collection<Episode> episodes) {
-                    mEpisodeAdapter.addAll(episodes);
-                }
-            };
+    private ChunkListener<Episode> mEpisodeChunkListener = new ChunkListener<Episode>() {
+        @Override
+        public void onChunk(List<Episode> episodes) {
+            mEpisodeAdapter.addAll(episodes);
+        }
+
+        @Override
+        public void onComplete(Collection<Episode> episodes) {
+        }
+    };
 
     private Response.ErrorListener mErrorListener = new Response.ErrorListener() {
         @Override
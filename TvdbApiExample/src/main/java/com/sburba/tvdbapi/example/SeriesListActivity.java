@@ -12,6 +12,7 @@ import android.widget.Toast;
 import com.android.volley.Response;
 import com.android.volley.VolleyError;
 import com.android.volley.toolbox.ImageLoader;
+import com.sburba.tvdbapi.Prefetcher;
 import com.sburba.tvdbapi.TvdbApi;
 import com.sburba.tvdbapi.TvdbItemAdapter;
 import com.sburba.tvdbapi.model.Series;
@@ -23,6 +24,7 @@ public class SeriesListActivity extends ListActivity {
     private static final String SEARCH_STRING = "the";
 
     private TvdbItemAdapter<Series> mSeriesAdapter;
+    private Prefetcher mPrefetcher;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -34,9 +36,17 @@ public class SeriesListActivity extends ListActivity {
         setListAdapter(mSeriesAdapter);
 
         TvdbApi tvdbApi = new TvdbApi(App.TVDB_API_KEY, "en", app.getRequestQueue());
+        mPrefetcher = new Prefetcher(tvdbApi, imageLoader);
         tvdbApi.searchSeries(SEARCH_STRING, mSeriesResponseListener, mErrorListener);
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // The user is leaving the list, so stop guessing what they'll open next
+        mPrefetcher.cancel();
+    }
+
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         // Inflate the menu; this adds items to the action bar if it is present.
@@ -58,6 +68,7 @@ public class SeriesListActivity extends ListActivity {
         @Override
         public void onResponse(Collection<Series> series) {
             mSeriesAdapter.addAll(series);
+            mPrefetcher.prefetchSeries(series);
         }
     };
 
@@ -0,0 +1,105 @@
+package com.sburba.tvdbapi.loadtest;
+
+import android.content.res.AssetManager;
+import android.test.InstrumentationTestCase;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.NoCache;
+import com.android.volley.toolbox.RequestFuture;
+import com.sburba.tvdbapi.model.Actor;
+import com.sburba.tvdbapi.parser.ActorListParser;
+import com.sburba.tvdbapi.transport.Mirror;
+import com.sburba.tvdbapi.transport.MirrorHttpStack;
+import com.sburba.tvdbapi.transport.MirrorSelector;
+import com.sburba.tvdbapi.xml.XmlObjectListRequest;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MirrorHttpStack} with one dead mirror and one {@link StandInServer}: requests have to
+ * fail over to the live mirror by themselves, without a Volley retry
+ */
+public class MirrorFailoverTest extends InstrumentationTestCase {
+    private static final String ACTORS_URL =
+            MirrorSelector.TVDB_ORIGIN + "/api/KEY/series/1/actors.xml";
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private StandInServer mServer;
+    private Mirror mDeadMirror;
+    private Mirror mLiveMirror;
+    private RequestQueue mRequestQueue;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        AssetManager assets = getInstrumentation().getTargetContext().getAssets();
+        mServer = new StandInServer(assets, "small", 0, 0);
+        mLiveMirror = new Mirror(mServer.start(), Mirror.TYPE_ALL);
+        mDeadMirror = new Mirror(getClosedOrigin(), Mirror.TYPE_ALL);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (mRequestQueue != null) mRequestQueue.stop();
+        mServer.stop();
+        super.tearDown();
+    }
+
+    public void testDeadMirrorFailsOverToLiveMirror() throws Exception {
+        // Neither mirror is measured yet, so the first one listed is tried first
+        MirrorSelector selector = new MirrorSelector(Arrays.asList(mDeadMirror, mLiveMirror));
+        startQueue(selector);
+
+        Collection<Actor> actors = getActors();
+
+        assertFalse(actors.isEmpty());
+        assertEquals(1, mServer.getRequestCount());
+        assertSame(mLiveMirror, selector.select(ACTORS_URL));
+    }
+
+    public void testEveryMirrorDeadFails() throws Exception {
+        Mirror otherDeadMirror = new Mirror(getClosedOrigin(), Mirror.TYPE_ALL);
+        startQueue(new MirrorSelector(Arrays.asList(mDeadMirror, otherDeadMirror)));
+
+        try {
+            getActors();
+            fail("Request to dead mirrors succeeded");
+        } catch (ExecutionException expected) {
+        }
+    }
+
+    private void startQueue(MirrorSelector selector) {
+        mRequestQueue = new RequestQueue(new NoCache(),
+                                         new BasicNetwork(new MirrorHttpStack(selector)));
+        mRequestQueue.start();
+    }
+
+    private Collection<Actor> getActors() throws Exception {
+        RequestFuture<Collection<Actor>> future = RequestFuture.newFuture();
+        XmlObjectListRequest<Actor, ActorListParser> request =
+                new XmlObjectListRequest<Actor, ActorListParser>(
+                        new ActorListParser(), ACTORS_URL, future, future);
+        // Fail over inside the stack, not through Volley retrying the request
+        request.setRetryPolicy(new DefaultRetryPolicy(
+                DefaultRetryPolicy.DEFAULT_TIMEOUT_MS, 0, DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+        mRequestQueue.add(request);
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return An origin on a local port nothing listens on, connecting to it is refused
+     */
+    private static String getClosedOrigin() throws Exception {
+        ServerSocket socket = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+        int port = socket.getLocalPort();
+        socket.close();
+        return "http://127.0.0.1:" + port;
+    }
+}
@@ -0,0 +1,130 @@
+package com.sburba.tvdbapi.loadtest;
+
+import android.content.res.AssetManager;
+import android.test.InstrumentationTestCase;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.HurlStack;
+import com.android.volley.toolbox.NoCache;
+import com.android.volley.toolbox.RequestFuture;
+import com.sburba.tvdbapi.model.Actor;
+import com.sburba.tvdbapi.model.SeriesBundle;
+import com.sburba.tvdbapi.parser.ActorListParser;
+import com.sburba.tvdbapi.parser.SeriesBundleParser;
+import com.sburba.tvdbapi.xml.RevalidationSource;
+import com.sburba.tvdbapi.xml.SharedZippedXmlRequest;
+import com.sburba.tvdbapi.xml.XmlObjectListRequest;
+import com.sburba.tvdbapi.xml.XmlRequest;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revalidated requests against the {@link StandInServer}: a 304 has to deliver the result the
+ * source kept, without downloading or parsing the response again
+ */
+public class RevalidationTest extends InstrumentationTestCase {
+    private static final String SERIES_PATH = "/api/KEY/series/1/all/en.zip";
+    private static final String ACTORS_PATH = "/api/KEY/series/1/actors.xml";
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private StandInServer mServer;
+    private String mOrigin;
+    private RequestQueue mRequestQueue;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        AssetManager assets = getInstrumentation().getTargetContext().getAssets();
+        mServer = new StandInServer(assets, "small", 0, 0);
+        mOrigin = mServer.start();
+        mRequestQueue = new RequestQueue(new NoCache(), new BasicNetwork(new HurlStack()));
+        mRequestQueue.start();
+        // Forget validators from earlier tests
+        XmlRequest.setRevalidationCacheSize(16);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mRequestQueue.stop();
+        mServer.stop();
+        super.tearDown();
+    }
+
+    public void testNotModifiedSeriesZipReusesBundle() throws Exception {
+        KeptResult keptResult = new KeptResult();
+        Collection<SeriesBundle> downloaded = getSeries(keptResult);
+        long bytesDownloaded = mServer.getBodyBytesSent();
+        assertEquals(1, mServer.getRequestCount());
+        assertTrue(bytesDownloaded > 0);
+
+        keptResult.result = downloaded;
+        Collection<SeriesBundle> revalidated = getSeries(keptResult);
+
+        assertSame(downloaded, revalidated);
+        assertEquals(2, mServer.getRequestCount());
+        assertEquals(1, mServer.getNotModifiedCount());
+        assertEquals(bytesDownloaded, mServer.getBodyBytesSent());
+    }
+
+    public void testNotModifiedActorsReuseList() throws Exception {
+        KeptResult keptResult = new KeptResult();
+        Collection<Actor> downloaded = getActors(keptResult);
+        long bytesDownloaded = mServer.getBodyBytesSent();
+
+        keptResult.result = downloaded;
+        Collection<Actor> revalidated = getActors(keptResult);
+
+        assertSame(downloaded, revalidated);
+        assertEquals(1, mServer.getNotModifiedCount());
+        assertEquals(bytesDownloaded, mServer.getBodyBytesSent());
+    }
+
+    public void testResultNoLongerKeptDownloadsAgain() throws Exception {
+        KeptResult keptResult = new KeptResult();
+        Collection<SeriesBundle> downloaded = getSeries(keptResult);
+        long bytesDownloaded = mServer.getBodyBytesSent();
+
+        // The source dropped the result, so the request can't be conditional
+        keptResult.result = null;
+        Collection<SeriesBundle> redownloaded = getSeries(keptResult);
+
+        assertNotSame(downloaded, redownloaded);
+        assertEquals(0, mServer.getNotModifiedCount());
+        assertEquals(2 * bytesDownloaded, mServer.getBodyBytesSent());
+    }
+
+    private Collection<SeriesBundle> getSeries(KeptResult keptResult) throws Exception {
+        RequestFuture<Collection<SeriesBundle>> future = RequestFuture.newFuture();
+        SharedZippedXmlRequest request = new SharedZippedXmlRequest(mOrigin + SERIES_PATH, null);
+        request.setRevalidationSource(keptResult);
+        request.addParser(new SeriesBundleParser("en"), future, future, Request.Priority.NORMAL,
+                          null);
+        mRequestQueue.add(request);
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private Collection<Actor> getActors(KeptResult keptResult) throws Exception {
+        RequestFuture<Collection<Actor>> future = RequestFuture.newFuture();
+        XmlObjectListRequest<Actor, ActorListParser> request =
+                new XmlObjectListRequest<Actor, ActorListParser>(
+                        new ActorListParser(), mOrigin + ACTORS_PATH, future, future);
+        request.setRevalidationSource(keptResult);
+        mRequestQueue.add(request);
+        return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Holds at most one result, as if it was kept from the response the validators came from
+     */
+    private static class KeptResult implements RevalidationSource {
+        volatile Object result;
+
+        @Override
+        public Object getResult(String url, Object xmlParser, long validatedTime) {
+            return result;
+        }
+    }
+}
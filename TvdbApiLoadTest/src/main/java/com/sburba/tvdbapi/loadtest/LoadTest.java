@@ -0,0 +1,311 @@
+package com.sburba.tvdbapi.loadtest;
+
+import android.os.SystemClock;
+
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.NoCache;
+import com.sburba.tvdbapi.TvdbApi;
+import com.sburba.tvdbapi.model.Actor;
+import com.sburba.tvdbapi.model.Episode;
+import com.sburba.tvdbapi.model.Series;
+import com.sburba.tvdbapi.model.SeriesBundle;
+import com.sburba.tvdbapi.transport.Mirror;
+import com.sburba.tvdbapi.transport.MirrorHttpStack;
+import com.sburba.tvdbapi.transport.MirrorSelector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Drives {@link TvdbApi} with many simulated users against a {@link StandInServer}. Each endpoint
+ * is loaded on its own for a fixed time, so the heap high-water mark can be told apart per
+ * endpoint. Every user sends a request, waits for its response and immediately sends the next
+ * one, each with a series id nobody asked for before so neither the series cache nor a shared
+ * download answers it.
+ * <p/>
+ * The TVDB urls are routed to the server with a {@link MirrorSelector}, and Volley runs without a
+ * disk cache so every request goes through the dispatchers, the network and the parsers. Must be
+ * started on the main thread, which is where responses are delivered and latencies recorded
+ */
+public class LoadTest {
+    private static final String API_KEY = "LOADTEST";
+    private static final long HEAP_SAMPLE_INTERVAL_MS = 10;
+    private static final int FIRST_SERIES_ID = 1000000;
+
+    private final int mUsers;
+    private final long mPhaseMs;
+    private final RequestQueue mRequestQueue;
+    private final TvdbApi mTvdbApi;
+    private final List<Endpoint> mEndpoints;
+    private final List<EndpointResult> mResults = new ArrayList<EndpointResult>();
+    private Listener mListener;
+    private int mNextSeriesId = FIRST_SERIES_ID;
+
+    /**
+     * @param serverOrigin      Scheme, host and port of the {@link StandInServer}
+     * @param users             Number of simulated users sending requests at the same time
+     * @param phaseMs           How long each endpoint is loaded
+     * @param dispatcherThreads Number of Volley network dispatcher threads
+     */
+    public LoadTest(String serverOrigin, int users, long phaseMs, int dispatcherThreads) {
+        mUsers = users;
+        mPhaseMs = phaseMs;
+
+        MirrorSelector selector = new MirrorSelector(
+                Collections.singletonList(new Mirror(serverOrigin, Mirror.TYPE_ALL)));
+        mRequestQueue = new RequestQueue(new NoCache(),
+                                         new BasicNetwork(new MirrorHttpStack(selector)),
+                                         dispatcherThreads);
+        mTvdbApi = new TvdbApi(API_KEY, "en", mRequestQueue);
+        mEndpoints = Arrays.asList(SEARCH, SERIES_ZIP, ACTORS, EPISODE);
+    }
+
+    /**
+     * Load every endpoint in turn
+     */
+    public void start(Listener listener) {
+        mListener = listener;
+        mRequestQueue.start();
+        runPhase(0);
+    }
+
+    /**
+     * Stop sending requests, the results so far are not reported
+     */
+    public void stop() {
+        mListener = null;
+        mRequestQueue.stop();
+    }
+
+    private void runPhase(final int index) {
+        if (mListener == null) return;
+        if (index == mEndpoints.size()) {
+            mRequestQueue.stop();
+            mListener.onComplete(Collections.unmodifiableList(mResults));
+            return;
+        }
+        new Phase(mEndpoints.get(index)).start(new Runnable() {
+            @Override
+            public void run() {
+                runPhase(index + 1);
+            }
+        });
+    }
+
+    /**
+     * One endpoint loaded by every user until the phase ends. Requests still in flight when it
+     * ends are waited for but not counted
+     */
+    private class Phase {
+        private final Endpoint mEndpoint;
+        private final List<Long> mLatenciesMs = new ArrayList<Long>();
+        private final HeapSampler mHeapSampler = new HeapSampler();
+        private int mErrors = 0;
+        private int mInFlight = 0;
+        private long mStartMs;
+        private long mEndMs;
+        private Runnable mOnDone;
+
+        Phase(Endpoint endpoint) {
+            mEndpoint = endpoint;
+        }
+
+        void start(Runnable onDone) {
+            mOnDone = onDone;
+            // Start every phase from the same heap, so the high-water mark is this endpoint's
+            System.gc();
+            mHeapSampler.start();
+            mStartMs = SystemClock.elapsedRealtime();
+            mEndMs = mStartMs + mPhaseMs;
+            for (int user = 0; user < mUsers; user++) {
+                sendRequest();
+            }
+        }
+
+        private void sendRequest() {
+            final long sentMs = SystemClock.elapsedRealtime();
+            mInFlight++;
+            mEndpoint.request(mTvdbApi, mNextSeriesId++, new Response.Listener<Object>() {
+                @Override
+                public void onResponse(Object response) {
+                    onFinished(sentMs, true);
+                }
+            }, new Response.ErrorListener() {
+                @Override
+                public void onErrorResponse(VolleyError error) {
+                    onFinished(sentMs, false);
+                }
+            });
+        }
+
+        private void onFinished(long sentMs, boolean succeeded) {
+            mInFlight--;
+            long now = SystemClock.elapsedRealtime();
+            if (now <= mEndMs) {
+                if (succeeded) {
+                    mLatenciesMs.add(now - sentMs);
+                } else {
+                    mErrors++;
+                }
+                sendRequest();
+            } else if (mInFlight == 0) {
+                mResults.add(new EndpointResult(mEndpoint.name, mLatenciesMs, mErrors,
+                                                mEndMs - mStartMs, mHeapSampler.stop()));
+                mOnDone.run();
+            }
+        }
+    }
+
+    /**
+     * Samples the used heap on its own thread, so a busy main thread doesn't skip the peaks
+     */
+    private static class HeapSampler implements Runnable {
+        private volatile boolean mRunning = false;
+        private volatile long mHighWaterBytes = 0;
+        private Thread mThread;
+
+        void start() {
+            mRunning = true;
+            mHighWaterBytes = 0;
+            mThread = new Thread(this, "HeapSampler");
+            mThread.start();
+        }
+
+        /**
+         * @return The most heap that was in use while sampling
+         */
+        long stop() {
+            mRunning = false;
+            try {
+                mThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return mHighWaterBytes;
+        }
+
+        @Override
+        public void run() {
+            Runtime runtime = Runtime.getRuntime();
+            while (mRunning) {
+                long usedBytes = runtime.totalMemory() - runtime.freeMemory();
+                if (usedBytes > mHighWaterBytes) mHighWaterBytes = usedBytes;
+                SystemClock.sleep(HEAP_SAMPLE_INTERVAL_MS);
+            }
+        }
+    }
+
+    public static class EndpointResult {
+        public final String endpoint;
+        public final int completed;
+        public final int errors;
+        public final double requestsPerSecond;
+        public final long p50Ms;
+        public final long p99Ms;
+        public final long heapHighWaterBytes;
+
+        EndpointResult(String endpoint, List<Long> latenciesMs, int errors, long durationMs,
+                       long heapHighWaterBytes) {
+            List<Long> sorted = new ArrayList<Long>(latenciesMs);
+            Collections.sort(sorted);
+            this.endpoint = endpoint;
+            this.completed = sorted.size();
+            this.errors = errors;
+            this.requestsPerSecond = (durationMs > 0) ? completed * 1000.0 / durationMs : 0;
+            this.p50Ms = percentile(sorted, 0.50);
+            this.p99Ms = percentile(sorted, 0.99);
+            this.heapHighWaterBytes = heapHighWaterBytes;
+        }
+
+        private static long percentile(List<Long> sorted, double fraction) {
+            if (sorted.isEmpty()) return 0;
+            int index = (int) Math.ceil(fraction * sorted.size()) - 1;
+            return sorted.get(Math.max(0, index));
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%-8s %8.1f req/s  p50 %5d ms  p99 %5d ms  " +
+                                            "heap %6.1f MB  ok %d  errors %d",
+                                 endpoint, requestsPerSecond, p50Ms, p99Ms,
+                                 heapHighWaterBytes / (1024.0 * 1024.0), completed, errors);
+        }
+    }
+
+    public interface Listener {
+        /**
+         * Called on the main thread once every endpoint has been loaded
+         */
+        public void onComplete(List<EndpointResult> results);
+    }
+
+    private static abstract class Endpoint {
+        final String name;
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @param seriesId A series id that wasn't requested before
+         */
+        abstract void request(TvdbApi tvdbApi, int seriesId, Response.Listener<Object> listener,
+                              Response.ErrorListener errorListener);
+    }
+
+    private static final Endpoint SEARCH = new Endpoint("search") {
+        @Override
+        void request(TvdbApi tvdbApi, int seriesId, Response.Listener<Object> listener,
+                     Response.ErrorListener errorListener) {
+            tvdbApi.searchSeries("series " + seriesId,
+                                 LoadTest.<Collection<Series>>listener(listener),
+                                 errorListener);
+        }
+    };
+
+    private static final Endpoint SERIES_ZIP = new Endpoint("series") {
+        @Override
+        void request(TvdbApi tvdbApi, int seriesId, Response.Listener<Object> listener,
+                     Response.ErrorListener errorListener) {
+            tvdbApi.getFullSeries(seriesId, LoadTest.<SeriesBundle>listener(listener),
+                                  errorListener);
+        }
+    };
+
+    private static final Endpoint ACTORS = new Endpoint("actors") {
+        @Override
+        void request(TvdbApi tvdbApi, int seriesId, Response.Listener<Object> listener,
+                     Response.ErrorListener errorListener) {
+            tvdbApi.getActors(seriesId, LoadTest.<Collection<Actor>>listener(listener),
+                              errorListener);
+        }
+    };
+
+    private static final Endpoint EPISODE = new Endpoint("episode") {
+        @Override
+        void request(TvdbApi tvdbApi, int seriesId, Response.Listener<Object> listener,
+                     Response.ErrorListener errorListener) {
+            tvdbApi.getEpisode(seriesId, 1, 1, TvdbApi.SHOW_ORDER.DEFAULT,
+                               LoadTest.<Episode>listener(listener), errorListener);
+        }
+    };
+
+    /**
+     * Narrow an untyped listener to the type an endpoint delivers
+     */
+    private static <T> Response.Listener<T> listener(final Response.Listener<Object> listener) {
+        return new Response.Listener<T>() {
+            @Override
+            public void onResponse(T response) {
+                listener.onResponse(response);
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.sburba.tvdbapi.loadtest;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.graphics.Typeface;
+import android.os.Bundle;
+import android.util.Log;
+import android.widget.ScrollView;
+import android.widget.TextView;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Starts a {@link StandInServer}, runs a {@link LoadTest} against it and shows the results. The
+ * load can be changed with intent extras, for example:
+ * <pre>
+ * adb shell am start -n com.sburba.tvdbapi.loadtest/.LoadTestActivity \
+ *     --ei users 50 --ei phase_seconds 30 --ei latency_ms 200 --es size huge
+ * </pre>
+ * The results are also logged with the tag LoadTest
+ */
+public class LoadTestActivity extends Activity {
+    private static final String TAG = "LoadTest";
+
+    public static final String EXTRA_USERS = "users";
+    public static final String EXTRA_PHASE_SECONDS = "phase_seconds";
+    public static final String EXTRA_DISPATCHER_THREADS = "dispatcher_threads";
+    public static final String EXTRA_LATENCY_MS = "latency_ms";
+    public static final String EXTRA_BYTES_PER_SECOND = "bytes_per_second";
+    public static final String EXTRA_SIZE = "size";
+
+    private static final int DEFAULT_USERS = 20;
+    private static final int DEFAULT_PHASE_SECONDS = 20;
+    // Volley's default
+    private static final int DEFAULT_DISPATCHER_THREADS = 4;
+    private static final int DEFAULT_LATENCY_MS = 100;
+    private static final int DEFAULT_BYTES_PER_SECOND = 0;
+    private static final String DEFAULT_SIZE = "typical";
+
+    private TextView mReportView;
+    private StandInServer mServer;
+    private LoadTest mLoadTest;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        mReportView = new TextView(this);
+        mReportView.setTypeface(Typeface.MONOSPACE);
+        ScrollView scrollView = new ScrollView(this);
+        scrollView.addView(mReportView);
+        setContentView(scrollView);
+
+        Intent intent = getIntent();
+        int users = intent.getIntExtra(EXTRA_USERS, DEFAULT_USERS);
+        int phaseSeconds = intent.getIntExtra(EXTRA_PHASE_SECONDS, DEFAULT_PHASE_SECONDS);
+        int dispatcherThreads =
+                intent.getIntExtra(EXTRA_DISPATCHER_THREADS, DEFAULT_DISPATCHER_THREADS);
+        int latencyMs = intent.getIntExtra(EXTRA_LATENCY_MS, DEFAULT_LATENCY_MS);
+        int bytesPerSecond = intent.getIntExtra(EXTRA_BYTES_PER_SECOND, DEFAULT_BYTES_PER_SECOND);
+        String size = intent.getStringExtra(EXTRA_SIZE);
+        if (size == null) size = DEFAULT_SIZE;
+
+        final String settings = "users=" + users + " phase=" + phaseSeconds + "s dispatchers=" +
+                                dispatcherThreads + " latency=" + latencyMs + "ms bandwidth=" +
+                                ((bytesPerSecond > 0) ? bytesPerSecond + "B/s" : "unlimited") +
+                                " size=" + size;
+        mReportView.setText("Running " + settings + "\n");
+        Log.i(TAG, "Running " + settings);
+
+        String origin;
+        try {
+            mServer = new StandInServer(getAssets(), size, latencyMs, bytesPerSecond);
+            origin = mServer.start();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not start the stand-in server", e);
+            mReportView.append("Could not start the stand-in server: " + e + "\n");
+            return;
+        }
+
+        mLoadTest = new LoadTest(origin, users, phaseSeconds * 1000L, dispatcherThreads);
+        mLoadTest.start(new LoadTest.Listener() {
+            @Override
+            public void onComplete(List<LoadTest.EndpointResult> results) {
+                StringBuilder report = new StringBuilder(settings).append('\n');
+                for (LoadTest.EndpointResult result : results) {
+                    Log.i(TAG, result.toString());
+                    report.append(result).append('\n');
+                }
+                mReportView.setText(report);
+                mServer.stop();
+            }
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (mLoadTest != null) mLoadTest.stop();
+        if (mServer != null) mServer.stop();
+    }
+}
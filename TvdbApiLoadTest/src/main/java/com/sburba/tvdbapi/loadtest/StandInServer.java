@@ -0,0 +1,262 @@
+package com.sburba.tvdbapi.loadtest;
+
+import android.content.res.AssetManager;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * A local HTTP server that answers TVDB api requests with recorded responses, so the load test
+ * never touches the real service. Every series id gets the same recorded series, every search
+ * the same results. Each response waits for the configured latency and is then sent at the
+ * configured bandwidth. Every connection gets its own thread and is closed after one response.
+ * <p/>
+ * Series zips and actors are sent with an ETag and answered with 304 Not Modified when a request
+ * names it in If-None-Match. The requests and body bytes sent are counted for tests to check
+ */
+public class StandInServer {
+    private static final String TAG = "StandInServer";
+    private static final boolean D = false;
+
+    private static final String CONTENT_TYPE_XML = "text/xml; charset=utf-8";
+    private static final String CONTENT_TYPE_ZIP = "application/zip";
+    private static final String HEADER_IF_NONE_MATCH = "if-none-match:";
+    private static final int TICKS_PER_SECOND = 10;
+
+    private static final Pattern SEARCH = Pattern.compile("/api/GetSeries\\.php\\?.*");
+    private static final Pattern IMDB_SEARCH =
+            Pattern.compile("/api/GetSeriesByRemoteID\\.php\\?.*");
+    private static final Pattern SERIES_ZIP =
+            Pattern.compile("/api/[^/]+/series/\\d+/all/\\w+\\.zip");
+    private static final Pattern ACTORS = Pattern.compile("/api/[^/]+/series/\\d+/actors\\.xml");
+    private static final Pattern EPISODE =
+            Pattern.compile("/api/[^/]+/series/\\d+/\\w+/\\d+/\\d+/\\w+\\.xml");
+
+    private final byte[] mSearchXml;
+    private final byte[] mImdbSearchXml;
+    private final byte[] mSeriesZip;
+    private final byte[] mActorsXml;
+    private final byte[] mEpisodeXml;
+    private final String mSeriesZipEtag;
+    private final String mActorsEtag;
+    private final long mLatencyMs;
+    private final int mBytesPerSecond;
+    private final ExecutorService mConnectionExecutor = Executors.newCachedThreadPool();
+    private final AtomicInteger mRequestCount = new AtomicInteger();
+    private final AtomicInteger mNotModifiedCount = new AtomicInteger();
+    private final AtomicLong mBodyBytesSent = new AtomicLong();
+    private ServerSocket mServerSocket;
+
+    /**
+     * @param assets         Assets holding the recorded responses
+     * @param size           Size of the recorded series and search results: small, typical or
+     *                       huge
+     * @param latencyMs      Time to wait before answering each request
+     * @param bytesPerSecond Bandwidth of each response, 0 for unlimited
+     */
+    public StandInServer(AssetManager assets, String size, long latencyMs, int bytesPerSecond)
+            throws IOException {
+        mSearchXml = read(assets.open("search-" + size + ".xml"));
+        mImdbSearchXml = read(assets.open("search-small.xml"));
+        mSeriesZip = read(assets.open("series-" + size + ".zip"));
+        mActorsXml = readZipEntry(mSeriesZip, "actors.xml");
+        mEpisodeXml = read(assets.open("episode.xml"));
+        mSeriesZipEtag = getEtag(mSeriesZip);
+        mActorsEtag = getEtag(mActorsXml);
+        mLatencyMs = latencyMs;
+        mBytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Start accepting connections on a free local port
+     *
+     * @return The scheme, host and port to send requests to
+     */
+    public synchronized String start() throws IOException {
+        mServerSocket = new ServerSocket(0, 128, InetAddress.getByName("127.0.0.1"));
+        final ServerSocket serverSocket = mServerSocket;
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                acceptConnections(serverSocket);
+            }
+        }, TAG).start();
+        return "http://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    public synchronized void stop() {
+        if (mServerSocket == null) return;
+        try {
+            mServerSocket.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Error closing the server socket", e);
+        }
+        mServerSocket = null;
+        mConnectionExecutor.shutdownNow();
+    }
+
+    /**
+     * @return The number of requests answered so far
+     */
+    public int getRequestCount() {
+        return mRequestCount.get();
+    }
+
+    /**
+     * @return The number of requests answered with 304 Not Modified so far
+     */
+    public int getNotModifiedCount() {
+        return mNotModifiedCount.get();
+    }
+
+    /**
+     * @return The number of response body bytes sent so far, headers not included
+     */
+    public long getBodyBytesSent() {
+        return mBodyBytesSent.get();
+    }
+
+    private void acceptConnections(ServerSocket serverSocket) {
+        while (!serverSocket.isClosed()) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                // Closing the socket in stop() ends up here
+                return;
+            }
+            mConnectionExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    serve(socket);
+                }
+            });
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            BufferedReader reader =
+                    new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+            String requestLine = reader.readLine();
+            if (requestLine == null) return;
+            // Only If-None-Match changes the response
+            String ifNoneMatch = null;
+            String header;
+            while ((header = reader.readLine()) != null && header.length() > 0) {
+                if (D) Log.d(TAG, header);
+                if (header.toLowerCase(Locale.US).startsWith(HEADER_IF_NONE_MATCH)) {
+                    ifNoneMatch = header.substring(HEADER_IF_NONE_MATCH.length()).trim();
+                }
+            }
+
+            String[] parts = requestLine.split(" ");
+            String path = (parts.length > 1) ? parts[1] : "";
+            if (mLatencyMs > 0) Thread.sleep(mLatencyMs);
+            mRequestCount.incrementAndGet();
+            respond(socket.getOutputStream(), path, ifNoneMatch);
+        } catch (IOException e) {
+            if (D) Log.d(TAG, "Connection failed", e);
+        } catch (InterruptedException e) {
+            // Stopping
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                if (D) Log.d(TAG, "Error closing connection", e);
+            }
+        }
+    }
+
+    private void respond(OutputStream out, String path, String ifNoneMatch)
+            throws IOException, InterruptedException {
+        if (SEARCH.matcher(path).matches()) {
+            send(out, "200 OK", CONTENT_TYPE_XML, null, mSearchXml);
+        } else if (IMDB_SEARCH.matcher(path).matches()) {
+            send(out, "200 OK", CONTENT_TYPE_XML, null, mImdbSearchXml);
+        } else if (SERIES_ZIP.matcher(path).matches()) {
+            sendUnlessMatched(out, CONTENT_TYPE_ZIP, mSeriesZipEtag, mSeriesZip, ifNoneMatch);
+        } else if (ACTORS.matcher(path).matches()) {
+            sendUnlessMatched(out, CONTENT_TYPE_XML, mActorsEtag, mActorsXml, ifNoneMatch);
+        } else if (EPISODE.matcher(path).matches()) {
+            send(out, "200 OK", CONTENT_TYPE_XML, null, mEpisodeXml);
+        } else {
+            send(out, "404 Not Found", CONTENT_TYPE_XML, null, new byte[0]);
+        }
+    }
+
+    private void sendUnlessMatched(OutputStream out, String contentType, String etag, byte[] body,
+                                   String ifNoneMatch) throws IOException, InterruptedException {
+        if (etag.equals(ifNoneMatch)) {
+            mNotModifiedCount.incrementAndGet();
+            send(out, "304 Not Modified", contentType, etag, new byte[0]);
+        } else {
+            send(out, "200 OK", contentType, etag, body);
+        }
+    }
+
+    private void send(OutputStream out, String status, String contentType, String etag,
+                      byte[] body) throws IOException, InterruptedException {
+        String headers = "HTTP/1.1 " + status + "\r\n" +
+                         "Content-Type: " + contentType + "\r\n" +
+                         "Content-Length: " + body.length + "\r\n" +
+                         ((etag != null) ? "ETag: " + etag + "\r\n" : "") +
+                         "Connection: close\r\n\r\n";
+        out.write(headers.getBytes("US-ASCII"));
+        mBodyBytesSent.addAndGet(body.length);
+
+        int chunkSize = (mBytesPerSecond > 0) ?
+                Math.max(1, mBytesPerSecond / TICKS_PER_SECOND) : body.length;
+        for (int offset = 0; offset < body.length; offset += chunkSize) {
+            if (offset > 0) Thread.sleep(1000 / TICKS_PER_SECOND);
+            out.write(body, offset, Math.min(chunkSize, body.length - offset));
+            out.flush();
+        }
+        out.flush();
+    }
+
+    private static String getEtag(byte[] body) {
+        return "\"" + body.length + "-" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+    }
+
+    private static byte[] readZipEntry(byte[] zip, String entryName) throws IOException {
+        ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(zip));
+        ZipEntry entry;
+        while ((entry = zipStream.getNextEntry()) != null) {
+            if (entry.getName().equals(entryName)) return read(zipStream);
+        }
+        throw new IOException("Zip does not contain " + entryName);
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, count);
+            }
+            return bytes.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}